@@ -0,0 +1,79 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import wordlejava.*;
+
+/**
+ *
+ * Runs SolverBenchmark and saves a baseline, or runs it again with the settings of a baseline
+ * and reports what got slower or faster. A comparison exits with status 1 if anything regressed
+ * so it can fail a build.
+ *
+ * 		java Benchmark record {baseline} {strategies csv} {games} {rounds}
+ * 		java Benchmark compare {baseline} {file to save the new run}
+ *
+ * @author johnmatthew
+ *
+ */
+public class Benchmark {
+
+	public static int DEFAULT_GAMES = 500;
+	public static int DEFAULT_ROUNDS = 5;
+	public static int WARMUP_ROUNDS = 2;
+	public static long SEED = 20220131L;
+
+	public static void main(String[] args) throws IOException {
+
+		if(args.length < 2 || !(args[0].equals("record") || args[0].equals("compare"))) {
+			System.out.println("usage: java Benchmark record {baseline} {strategies csv} {games} {rounds}");
+			System.out.println("       java Benchmark compare {baseline} {file to save the new run}");
+			return;
+		}
+
+		WordleLibrary library = GuessManager.importLibraryFromSnapshot(System.getProperty("wordlejava.snapshot"), WordleGame.STANDARD_LENGTH);
+		FeedbackTable table = FeedbackTable.build(library);
+		Path baselineFile = Paths.get(args[1]);
+
+		if(args[0].equals("record")) {
+
+			GuessStrategy[] strategies = {GuessStrategy.HIGHEST_IMPACT};
+			int games = DEFAULT_GAMES;
+			int rounds = DEFAULT_ROUNDS;
+
+			if(args.length >= 3) {
+				strategies = Arrays.stream(args[2].split(",")).map(s -> GuessStrategy.valueOf(s.trim().toUpperCase())).toArray(GuessStrategy[]::new);
+			}
+
+			if(args.length >= 4) {
+				games = Integer.parseInt(args[3]);
+			}
+
+			if(args.length >= 5) {
+				rounds = Integer.parseInt(args[4]);
+			}
+
+			Properties baseline = new SolverBenchmark(library, table, games, SEED, rounds, WARMUP_ROUNDS).run(strategies);
+			SolverBenchmark.write(baseline, baselineFile);
+
+			System.out.println("Saved baseline of " + games + " games x " + rounds + " rounds to " + baselineFile);
+			return;
+		}
+
+		Properties baseline = SolverBenchmark.read(baselineFile);
+		GuessStrategy[] strategies = Arrays.stream(baseline.getProperty("strategies").split(",")).map(GuessStrategy::valueOf).toArray(GuessStrategy[]::new);
+
+		Properties current = SolverBenchmark.repeat(baseline, library, table).run(strategies);
+
+		if(args.length >= 3) {
+			SolverBenchmark.write(current, Paths.get(args[2]));
+		}
+
+		int regressions = SolverBenchmark.writeReport(SolverBenchmark.compare(baseline, current),
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+		if(regressions > 0) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import wordlejava.*;
+
+/**
+ *
+ * Runs DifferentialHarness on random cases and prints the minimized reproducer of the first
+ * mismatch, exiting with status 1 so it can fail a build. A reproducer is replayed by passing
+ * its wordle and guesses back:
+ *
+ * 		java Differential {trials} {seed} {max scored}
+ * 		java Differential replay {wordle} {guesses csv}
+ *
+ * Tables are checked on the heap, and in a memory mapped file as well when run with
+ * -Dwordlejava.tables={directory}.
+ *
+ * @author johnmatthew
+ *
+ */
+public class Differential {
+
+	public static int DEFAULT_TRIALS = 200;
+	public static int DEFAULT_MAX_SCORED = 200;
+
+	public static void main(String[] args) throws IOException {
+
+		WordleLibrary library = GuessManager.importLibraryFromSnapshot(System.getProperty("wordlejava.snapshot"), WordleGame.STANDARD_LENGTH);
+
+		LinkedHashMap<String, FeedbackTable> tables = new LinkedHashMap<>();
+		tables.put("heap", new HeapFeedbackTable(library));
+
+		String directory = System.getProperty("wordlejava.tables");
+		if(directory != null) {
+			tables.put("mapped", MappedFeedbackTable.open(Paths.get(directory).resolve(MappedFeedbackTable.fileName(library)), library));
+		}
+
+		DifferentialHarness.Mismatch mismatch;
+		String ran;
+
+		if(args.length >= 1 && args[0].equals("replay")) {
+
+			if(args.length < 3) {
+				System.out.println("usage: java Differential replay {wordle} {guesses csv}");
+				return;
+			}
+
+			DifferentialHarness harness = new DifferentialHarness(library, tables, Integer.MAX_VALUE);
+			mismatch = harness.check(new DifferentialHarness.Case(args[1], Arrays.asList(args[2].split(","))));
+			ran = harness.checks() + " checks";
+
+		} else {
+
+			int trials = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_TRIALS;
+			long seed = args.length >= 2 ? Long.parseLong(args[1]) : new Random().nextLong();
+			int maxScored = args.length >= 3 ? Integer.parseInt(args[2]) : DEFAULT_MAX_SCORED;
+
+			DifferentialHarness harness = new DifferentialHarness(library, tables, maxScored);
+			mismatch = harness.run(trials, seed);
+			ran = trials + " cases of seed " + seed + ", " + harness.checks() + " checks";
+		}
+
+		if(mismatch == null) {
+			System.out.println("No mismatches in " + ran);
+			return;
+		}
+
+		System.out.println(mismatch);
+		System.out.println("Replay with: java Differential replay " + mismatch.failingCase());
+		System.exit(1);
+	}
+}
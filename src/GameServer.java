@@ -0,0 +1,35 @@
+import java.io.IOException;
+import wordlejava.*;
+
+/**
+ *
+ * Serves GameHost on the loopback address until the process is stopped. Prints the measured
+ * memory of a session at startup so the host can be sized. RELOAD reads the frequency data again
+ * without stopping the server.
+ *
+ * @author johnmatthew
+ *
+ */
+public class GameServer {
+
+	public static int DEFAULT_PORT = 7070;
+	public static long IDLE_SECONDS = 600;
+
+	public static void main(String[] args) throws IOException {
+
+		int port = DEFAULT_PORT;
+
+		if(args.length >= 1) {
+			port = Integer.parseInt(args[0]);
+		}
+
+		DictionaryRegistry registry = new DictionaryRegistry(GuessManager.importDictionaryFromWeb(),
+				GuessManager::importDictionaryFromWeb, WordleGame.STANDARD_LENGTH);
+
+		GameHost host = new GameHost(registry, WordleGame.STANDARD_LENGTH, WordleGame.STANDARD_GUESSES, IDLE_SECONDS);
+		System.out.println("Measured bytes per session: " + host.measureBytesPerSession(100000));
+
+		host.start(port);
+		System.out.println("Hosting games on localhost:" + host.port());
+	}
+}
@@ -0,0 +1,69 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import wordlejava.*;
+
+/**
+ *
+ * Ranks every word as the first guess and writes the sorted leaderboard to a file, or to the
+ * console if no file is given.
+ *
+ * 		java OpenerReport {metric} {limit} {file} {length}
+ *
+ * @author johnmatthew
+ *
+ */
+public class OpenerReport {
+
+	public static int DEFAULT_LIMIT = 100;
+
+	public static void main(String[] args) throws IOException {
+
+		OpenerLeaderboard.Metric metric = OpenerLeaderboard.Metric.EXPECTED_REMAINING;
+		int limit = DEFAULT_LIMIT;
+		Path file = null;
+		int wordleLength = WordleGame.STANDARD_LENGTH;
+
+		if(args.length >= 1) {
+			metric = OpenerLeaderboard.Metric.valueOf(args[0].toUpperCase());
+		}
+
+		if(args.length >= 2) {
+			limit = Integer.parseInt(args[1]);
+		}
+
+		if(args.length >= 3) {
+			file = Paths.get(args[2]);
+		}
+
+		if(args.length >= 4) {
+			wordleLength = Integer.parseInt(args[3]);
+		}
+
+		WordleLibrary library = GuessManager.importLibraryFromWeb(wordleLength);
+
+		long start = System.nanoTime();
+		FeedbackTable table = FeedbackTable.build(library);
+		long built = System.nanoTime();
+		OpenerLeaderboard leaderboard = new OpenerLeaderboard(library, table);
+		long scored = System.nanoTime();
+
+		System.out.printf("Scored %d guesses against %d answers: table %d ms, scan %d ms%n", library.size(),
+				library.answerCount(), (built - start) / 1000000, (scored - built) / 1000000);
+
+		if(file == null) {
+
+			Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+			leaderboard.writeReport(out, metric, limit);
+			out.flush();
+
+		} else {
+
+			try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+				leaderboard.writeReport(out, metric, limit);
+			}
+
+			System.out.println("Wrote " + file);
+		}
+	}
+}
@@ -8,6 +8,10 @@ import wordlejava.*;
  * be run in an ANSI console to get color-coded results. Game finishes and prints the results
  * and then prints the WordleSolver results for the user to compare.
  *
+ * Each turn is drawn as one frame built in a reused buffer and written with a single call,
+ * drawing over the last frame instead of clearing the screen. Run with -Dwordlejava.hints=true
+ * to show the remaining words and the solver's next guess below the keyboard.
+ *
  * @author johnmatthew
  *
  */
@@ -18,24 +22,33 @@ public class PlayWordle {
 	private static final String ANSI_YELLOW = "\u001B[33m";
 	private static final String ANSI_RED = "\033[0;31m";
 
-	private static Hashtable<Character, String> resultsKeyboard;
+	private static final String ANSI_HOME = "\033[H";
+	private static final String ANSI_CLEAR_SCREEN = "\033[2J";
+	private static final String ANSI_CLEAR_LINE = "\033[K";
+	private static final String ANSI_CLEAR_BELOW = "\033[J";
+
+	private static final int HINT_WORDS = 8;
+
+	private static String[] resultsKeyboard;
 	private static String ALPHA_KEYBOARD = "qwertyuiopasdfghjklzxcvbnm";
 
+	private static final StringBuilder frame = new StringBuilder(1024);
+	private static final Scanner scan = new Scanner(System.in);
+
 	public static void main(String []args) {
 
-		System.out.print(ANSI_RESET);
+		System.out.print(ANSI_RESET + ANSI_HOME + ANSI_CLEAR_SCREEN);
 		resultsKeyboard = initResultsKeyboard();
 
-		LinkedList<String> library = GuessManager.importWordsToLibraryFromWeb(5);
-		LinkedList<String> libraryCopy = new LinkedList<>();
-		libraryCopy.addAll(library);
+		WordleLibrary library = GuessManager.importLibraryFromSnapshot(System.getProperty("wordlejava.snapshot"), 5);
+		GuessManager hints = Boolean.getBoolean("wordlejava.hints") ? new GuessManager(library) : null;
 
-		WordleGame randomStandardGame = WordleGame.getRandomStandardGame(library);
-		WordleRecord result = play(randomStandardGame, libraryCopy);
+		WordleGame randomStandardGame = WordleGame.getRandomStandardGame(library, new Random());
+		WordleRecord result = play(randomStandardGame, library, hints);
 		String wordle = randomStandardGame.wordle();
 
 		System.out.println(result);
-		WordleSolver ws = new WordleSolver(new WordleGame(wordle, WordleGame.STANDARD_GUESSES), libraryCopy);
+		WordleSolver ws = new WordleSolver(new WordleGame(wordle, WordleGame.STANDARD_GUESSES), new LibraryView(library));
 		System.out.println("WordleSolver:\n" + ws.solve());
 	}
 
@@ -44,24 +57,29 @@ public class PlayWordle {
 	 * Plays the WordleGame and returns the WordleResult
 	 *
 	 * @param game the WorldGame instance to be played
+	 * @param hints the remaining words of the game. null to play without hints
 	 * @return result when the game is over
 	 */
-	private static WordleRecord play(WordleGame game, LinkedList<String> library) {
+	private static WordleRecord play(WordleGame game, WordleLibrary library, GuessManager hints) {
 
 		LinkedList<String> guesses = new LinkedList<>();
 
 		while (!game.gameIsOver()) {
 
-			printResultsGrid(game);
-			printKeyboard();
+			printFrame(game, hints, "Guess word: ");
 			String nextGuess = getNextGuess(game, library);
 			game.guess(nextGuess);
 			guesses.add(nextGuess);
-			System.out.print("\033[H\033[2J");
-			System.out.flush();
+
+			updateResultsKeyboard(game);
+
+			// only the words ruled out by the new guess are removed so the hints keep up with typing
+			if(hints != null) {
+				hints.refineLibrary(game.getLastGuess(), game.getLastResults());
+			}
 		}
 
-		printResultsGrid(game);
+		printFrame(game, null, "");
 
 		return new WordleRecord(game.wordle(), guesses, game.getWin());
 	}
@@ -69,22 +87,19 @@ public class PlayWordle {
 	/**
 	 *
 	 * Gets the next guess from the use. Checks the validity of the word based on the game.
+	 * The prompt is part of the frame so it is only printed again for invalid words.
 	 *
 	 * @param game the game for which make the guess.
 	 * @return the guess that the user inputs
 	 */
-	private static String getNextGuess(WordleGame game, LinkedList<String> library) {
-
-		Scanner scan = new Scanner(System.in);
+	private static String getNextGuess(WordleGame game, WordleLibrary library) {
 
-		System.out.print("Guess word: ");
 		String guess = scan.nextLine().toLowerCase();
-		System.out.println();
 		while(!WordleGame.isValidWordleGuess(guess, game.getWordleLength(), library)) {
 
 			System.out.print("Guess word: ");
+			System.out.flush();
 			guess = scan.nextLine().toLowerCase();
-			System.out.println();
 		}
 
 		return guess;
@@ -92,117 +107,165 @@ public class PlayWordle {
 
 	/**
 	 *
-	 * Prints the grid based on the results of the guess for user information.
+	 * Draws the grid, the keyboard, the hints and the prompt over the last frame with one write.
+	 * Every line clears what is left of the line it replaced.
+	 *
+	 * @param game the WordleGame to draw
+	 * @param hints the remaining words of the game. null to draw without hints
+	 * @param prompt text to leave the cursor after
+	 */
+	private static void printFrame(WordleGame game, GuessManager hints, String prompt) {
+
+		frame.setLength(0);
+		frame.append(ANSI_HOME);
+
+		appendResultsGrid(game);
+		appendKeyboard();
+
+		if(hints != null) {
+			appendHints(hints);
+		}
+
+		frame.append(ANSI_CLEAR_BELOW).append(prompt);
+
+		System.out.print(frame);
+		System.out.flush();
+	}
+
+	private static void endLine() { frame.append(ANSI_CLEAR_LINE).append('\n'); }
+
+	/**
+	 *
+	 * Draws the grid based on the results of the guess for user information.
 	 * Green text means the letter is correct. Yellow text means the letter is
 	 * in the word but in the wrong index. Standard text means the letter is
 	 * not in the wordle.
 	 *
-	 * @param game the WorldGame whose grid is to be printed
+	 * @param game the WorldGame whose grid is to be drawn
 	 */
-	private static void printResultsGrid(WordleGame game) {
-		System.out.println("    WORDLE");
+	private static void appendResultsGrid(WordleGame game) {
+
+		frame.append("    WORDLE");
+		endLine();
 
 		for(int i = 0; i < game.getNumGuesses(); i++) {
 
 			char[] guess = game.getGuess(i);
 
-			if(game.nextGuessIndex() == i) {
-				System.out.print("> ");
-			} else {
-				System.out.print("  ");
-			}
+			frame.append(game.nextGuessIndex() == i ? "> " : "  ");
 
 			for(int j = 0; j < game.getWordleLength(); j++) {
 
 				if(guess[j] == Character.MIN_VALUE) {
-					System.out.print("_ ");
+					frame.append("_ ");
 				} else {
-					printLetter(game.getResult(i, j), guess[j]);
+					frame.append(resultColor(game.getResult(i, j))).append(guess[j]).append(ANSI_RESET).append(' ');
 				}
 			}
-			System.out.println(); // formatting
+			endLine();
 		}
-		System.out.println(); // formatting
+		endLine();
 	}
 
 	/**
-	 * Prints a standard US English keyboard with colors relating to
+	 * Draws a standard US English keyboard with colors relating to
 	 * the result of a guessed character if they've been guessed.
 	 */
-	private static void printKeyboard() {
-
-		for(int i = 0; i < 10; i++) {
-
-			char iChar = ALPHA_KEYBOARD.charAt(i);
-			System.out.print(resultsKeyboard.get(iChar) + Character.toString(iChar) + " " + ANSI_RESET);
-		}
+	private static void appendKeyboard() {
 
-		System.out.print("\n ");
+		for(int i = 0; i < ALPHA_KEYBOARD.length(); i++) {
 
-		for(int i = 10; i < 19; i++) {
+			if(i == 10) {
+				endLine();
+				frame.append(' ');
+			} else if(i == 19) {
+				endLine();
+				frame.append("  ");
+			}
 
 			char iChar = ALPHA_KEYBOARD.charAt(i);
-			System.out.print(resultsKeyboard.get(iChar) + Character.toString(iChar) + " " + ANSI_RESET);
+			frame.append(resultsKeyboard[iChar - 'a']).append(iChar).append(' ').append(ANSI_RESET);
 		}
 
-		System.out.print("\n  ");
+		endLine();
+	}
 
-		for(int i = 19; i < 26; i++) {
+	/**
+	 *
+	 * Draws the number of remaining words, the most likely of them and the guess the solver
+	 * would make next.
+	 *
+	 * @param hints the remaining words of the game
+	 */
+	private static void appendHints(GuessManager hints) {
 
-			char iChar = ALPHA_KEYBOARD.charAt(i);
-			System.out.print(resultsKeyboard.get(iChar) + Character.toString(iChar) + " " + ANSI_RESET);
+		endLine();
+		frame.append("Remaining: ").append(hints.size());
+		endLine();
+
+		frame.append(' ');
+		for(int i = 0; i < Math.min(HINT_WORDS, hints.size()); i++) {
+			frame.append(' ').append(hints.get(i));
+		}
+		if(hints.size() > HINT_WORDS) {
+			frame.append(" ...");
 		}
+		endLine();
 
-		System.out.println();
+		frame.append("Suggested: ").append(hints.size() == 0 ? "-" : hints.getNextWord());
+		endLine();
+		endLine();
 	}
 
 	/**
 	 *
-	 * Prints a letter in the grid with the correct color based on the related
-	 * result.
+	 * The color of a letter in the grid based on the related result.
 	 *
-	 * @param result determines the color to print the letter
-	 * @param letter the letter to print
+	 * @param result determines the color of the letter
+	 * @return the ANSI code of the color
 	 */
-	private static void printLetter(int result, char letter) {
+	private static String resultColor(int result) {
 
 		switch(result) {
 			case 1:
-				System.out.print(ANSI_GREEN + Character.toString(letter) + ANSI_RESET + " ");
-				resultsKeyboard.replace(letter, ANSI_GREEN);
-				break;
+				return ANSI_GREEN;
 			case 2:
-				System.out.print(ANSI_YELLOW + Character.toString(letter) + ANSI_RESET + " ");
-				resultsKeyboard.replace(letter, ANSI_YELLOW);
-				break;
+				return ANSI_YELLOW;
 			case 0:
-				System.out.print(ANSI_RED + Character.toString(letter) + ANSI_RESET + " ");
-				resultsKeyboard.replace(letter, ANSI_RED);
-				break;
+				return ANSI_RED;
 			default:
-				System.out.print(ANSI_RESET + Character.toString(letter) + " ");
-				resultsKeyboard.replace(letter, ANSI_RESET);
+				return ANSI_RESET;
 		}
-
-		System.out.print(ANSI_RESET);
 	}
 
 	/**
-	 * Initializes the Hashtable for the keyboard that will keep track of each
-	 * letter and the result if it guess. Called in the constructor.
 	 *
-	 * @return a hashtable with all letters of the alphabet paiared with
-	 * 			"ANSI)_RESET" as a value.
+	 * Colors the keys of the letters of the last guess with their results. A letter used
+	 * more than once keeps the result of its last use.
+	 *
+	 * @param game the game that was just guessed
 	 */
-	private static Hashtable<Character,String> initResultsKeyboard() {
-
-		Hashtable<Character,String> keyboard = new Hashtable<>();
+	private static void updateResultsKeyboard(WordleGame game) {
 
-		for(int i = 0; i < GuessManager.ALPHABET_STR.length(); i++) {
+		char[] guess = game.getLastGuess();
+		int[] results = game.getLastResults();
 
-			keyboard.put(GuessManager.ALPHABET_STR.charAt(i), ANSI_RESET);
+		for(int i = 0; i < guess.length; i++) {
+			resultsKeyboard[guess[i] - 'a'] = resultColor(results[i]);
 		}
+	}
+
+	/**
+	 * Initializes the keyboard that will keep track of each letter and the
+	 * result if it guess, indexed by the letter less 'a'. Called in main.
+	 *
+	 * @return an array of "ANSI_RESET" for every letter of the alphabet
+	 */
+	private static String[] initResultsKeyboard() {
+
+		String[] keyboard = new String[GuessManager.ALPHABET_STR.length()];
+		Arrays.fill(keyboard, ANSI_RESET);
 
 		return keyboard;
 	}
-}
\ No newline at end of file
+}
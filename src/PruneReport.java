@@ -0,0 +1,117 @@
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import wordlejava.*;
+
+/**
+ *
+ * Plays random games scoring every word as the next guess and prints, for each turn, how much
+ * GuessPruner shrank the guesses scored and how long picking a guess took with and without it.
+ * The guess picked without pruning is checked against the one picked with it, and a difference
+ * exits with status 1.
+ *
+ * 		java PruneReport {strategy} {games} {seed}
+ *
+ * @author johnmatthew
+ *
+ */
+public class PruneReport {
+
+	public static int DEFAULT_GAMES = 20;
+	public static long DEFAULT_SEED = 20220131L;
+
+	public static void main(String[] args) {
+
+		GuessStrategy strategy = args.length >= 1 ? GuessStrategy.valueOf(args[0].toUpperCase()) : GuessStrategy.ENTROPY;
+		int games = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+		long seed = args.length >= 3 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+		if(strategy == GuessStrategy.HIGHEST_IMPACT) {
+			System.out.println("usage: java PruneReport {ENTROPY or EXPECTED_GUESSES} {games} {seed}");
+			return;
+		}
+
+		WordleLibrary library = GuessManager.importLibraryFromSnapshot(System.getProperty("wordlejava.snapshot"), WordleGame.STANDARD_LENGTH);
+		FeedbackTable table = FeedbackTable.build(library);
+
+		long[] decisions = new long[WordleGame.STANDARD_GUESSES];
+		long[] candidates = new long[WordleGame.STANDARD_GUESSES];
+		long[] groups = new long[WordleGame.STANDARD_GUESSES];
+		long[] scored = new long[WordleGame.STANDARD_GUESSES];
+		long[] fullNanos = new long[WordleGame.STANDARD_GUESSES];
+		long[] prunedNanos = new long[WordleGame.STANDARD_GUESSES];
+		int mismatches = 0;
+		Random random = new Random(seed);
+
+		for(int g = 0; g < games; g++) {
+
+			String wordle = library.word(random.nextInt(library.answerCount()));
+
+			GuessManager pruned = manager(library, table, strategy, true);
+			GuessManager full = manager(library, table, strategy, false);
+			WordleGame game = new WordleGame(wordle, WordleGame.STANDARD_GUESSES);
+
+			for(int turn = 0; turn < WordleGame.STANDARD_GUESSES && !game.gameIsOver(); turn++) {
+
+				int remaining = pruned.size();
+
+				// every other game picks without pruning first so neither always runs warm
+				String expected = g % 2 == 0 ? null : time(full, fullNanos, turn);
+				String guess = time(pruned, prunedNanos, turn);
+				if(expected == null) {
+					expected = time(full, fullNanos, turn);
+				}
+
+				if(!guess.equals(expected)) {
+					System.out.println("mismatch on turn " + (turn + 1) + " of " + wordle + ": " + expected + " without pruning, " + guess + " with it");
+					mismatches++;
+				}
+
+				GuessPruner.Pruning pruning = pruned.lastPruning();
+				decisions[turn]++;
+				candidates[turn] += remaining;
+				groups[turn] += pruning.groups();
+				scored[turn] += pruning.keptCount();
+
+				game.guess(guess);
+				pruned.refineLibrary(guess.toCharArray(), game.getLastResults());
+				full.refineLibrary(guess.toCharArray(), game.getLastResults());
+			}
+		}
+
+		System.out.println(strategy + ", " + games + " games, " + library.size() + " guesses a turn");
+		System.out.println("turn\tdecisions\tmean_remaining\tmean_groups\tmean_scored\tshrink\tfull_ms\tpruned_ms");
+
+		for(int turn = 0; turn < decisions.length && decisions[turn] > 0; turn++) {
+
+			double n = decisions[turn];
+			System.out.println(String.format("%d\t%d\t%.1f\t%.1f\t%.1f\t%.1fx\t%.2f\t%.2f", turn + 1, decisions[turn],
+					candidates[turn] / n, groups[turn] / n, scored[turn] / n, library.size() / (scored[turn] / n),
+					TimeUnit.NANOSECONDS.toMicros(fullNanos[turn]) / 1e3 / n, TimeUnit.NANOSECONDS.toMicros(prunedNanos[turn]) / 1e3 / n));
+		}
+
+		if(mismatches > 0) {
+			System.out.println(mismatches + " guesses differed");
+			System.exit(1);
+		}
+	}
+
+	private static String time(GuessManager guessManager, long[] nanos, int turn) {
+
+		long start = System.nanoTime();
+		String guess = guessManager.getNextWord();
+		nanos[turn] += System.nanoTime() - start;
+
+		return guess;
+	}
+
+	private static GuessManager manager(WordleLibrary library, FeedbackTable table, GuessStrategy strategy, boolean prune) {
+
+		GuessManager guessManager = new GuessManager(library);
+		guessManager.setFeedbackTable(table);
+		guessManager.setStrategy(strategy);
+		guessManager.setScoreAllWords(true);
+		guessManager.setPruneGuesses(prune);
+
+		return guessManager;
+	}
+}
@@ -0,0 +1,56 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import wordlejava.*;
+
+/**
+ *
+ * Replays an archive of WordleRecords, such as the output of main or PlayWordle, and writes
+ * the score of every guess to a file, or to the console if no file is given. The totals of
+ * each turn are printed at the end.
+ *
+ * 		java ReplayReport {archive} {file} {threads}
+ *
+ * The archive is read from the console if it is "-".
+ *
+ * @author johnmatthew
+ *
+ */
+public class ReplayReport {
+
+	public static int MAX_IN_FLIGHT = 1024;
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+
+		if(args.length < 1) {
+			System.out.println("usage: java ReplayReport {archive} {file} {threads}");
+			return;
+		}
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		if(args.length >= 3) {
+			threads = Integer.parseInt(args[2]);
+		}
+
+		WordleLibrary library = GuessManager.importLibraryFromWeb(WordleGame.STANDARD_LENGTH);
+		ReplayAnalyzer analyzer = new ReplayAnalyzer(library, FeedbackTable.build(library));
+
+		Reader archive = args[0].equals("-") ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+				: Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+		Writer report = args.length >= 2 ? Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)
+				: new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+		ReplayAnalyzer.Summary summary;
+
+		try (BufferedReader in = new BufferedReader(archive, 1 << 16)) {
+			summary = analyzer.analyzeAll(in, report, threads, MAX_IN_FLIGHT);
+		} finally {
+			report.flush();
+			if(args.length >= 2) {
+				report.close();
+			}
+		}
+
+		System.out.print(summary);
+	}
+}
@@ -0,0 +1,49 @@
+import java.io.IOException;
+import java.nio.file.*;
+import wordlejava.*;
+
+/**
+ *
+ * Writes a SolverSnapshot of the library, or loads one and reports how long it took.
+ *
+ * 		java Snapshot write {file} {length} {table}
+ * 		java Snapshot read {file}
+ *
+ * {table} is true to include the feedback table, which is the default.
+ *
+ * @author johnmatthew
+ *
+ */
+public class Snapshot {
+
+	public static void main(String[] args) throws IOException {
+
+		if(args.length < 2) {
+			System.out.println("usage: java Snapshot write {file} {length} {table} | java Snapshot read {file}");
+			return;
+		}
+
+		Path file = Paths.get(args[1]);
+
+		if(args[0].equalsIgnoreCase("write")) {
+
+			int wordleLength = args.length >= 3 ? Integer.parseInt(args[2]) : WordleGame.STANDARD_LENGTH;
+			boolean withTable = args.length < 4 || Boolean.parseBoolean(args[3]);
+
+			WordleLibrary library = GuessManager.importLibraryFromWeb(wordleLength);
+			SolverSnapshot snapshot = SolverSnapshot.build(library, withTable);
+			snapshot.write(file);
+
+			System.out.println("Wrote " + snapshot + " to " + file + " (" + Files.size(file) + " bytes)");
+			return;
+		}
+
+		long start = System.nanoTime();
+		SolverSnapshot snapshot = SolverSnapshot.load(file);
+		long loaded = System.nanoTime();
+		String guess = new SolverService(snapshot, GuessStrategy.ENTROPY).nextGuess(GuessHistory.parse("", snapshot.library().wordleLength()), GuessStrategy.ENTROPY).guess();
+		long guessed = System.nanoTime();
+
+		System.out.printf("Loaded %s in %.2f ms, first guess %s in %.2f ms%n", snapshot, (loaded - start) / 1e6, guess, (guessed - loaded) / 1e6);
+	}
+}
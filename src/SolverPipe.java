@@ -0,0 +1,60 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import wordlejava.*;
+
+/**
+ *
+ * Answers SolverService queries read from the console, one history per line, writing the next
+ * guess and the number of remaining words of each to the console in the same order. The totals
+ * are printed to the error stream at the end so they don't mix with the answers.
+ *
+ * 		java SolverPipe {strategy} {threads} {length} &lt; queries.txt &gt; answers.txt
+ *
+ * Run with -Dwordlejava.snapshot={file} to answer from a SolverSnapshot.
+ *
+ * @author johnmatthew
+ *
+ */
+public class SolverPipe {
+
+	public static int MAX_IN_FLIGHT = 64;
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+
+		GuessStrategy strategy = GuessStrategy.ENTROPY;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int wordleLength = WordleGame.STANDARD_LENGTH;
+
+		if(args.length >= 1) {
+			strategy = GuessStrategy.valueOf(args[0].toUpperCase());
+		}
+
+		if(args.length >= 2) {
+			threads = Integer.parseInt(args[1]);
+		}
+
+		if(args.length >= 3) {
+			wordleLength = Integer.parseInt(args[2]);
+		}
+
+		SolverService service;
+		String snapshotFile = System.getProperty("wordlejava.snapshot");
+
+		if(snapshotFile != null) {
+			service = new SolverService(SolverSnapshot.load(Paths.get(snapshotFile)), strategy);
+		} else {
+			service = new SolverService(DictionaryRegistry.of(GuessManager.importDictionaryFromWeb()), wordleLength, strategy);
+		}
+
+		QueryPipeline pipeline = new QueryPipeline(service, wordleLength, strategy);
+
+		// the console streams are used directly to skip the locking and flushing of System.out
+		BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(FileDescriptor.in), StandardCharsets.UTF_8), 1 << 16);
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16);
+
+		QueryPipeline.Summary summary = pipeline.run(in, out, threads, MAX_IN_FLIGHT);
+
+		System.err.println(summary);
+	}
+}
@@ -0,0 +1,56 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import wordlejava.*;
+
+/**
+ *
+ * Serves SolverService over HTTP on the loopback address until the process is stopped. The
+ * frequency data is read once and the library of each word length is built on its first request.
+ * POST /reload reads the frequency data again without stopping the server. Run with
+ * -Dwordlejava.snapshot={file} to serve a SolverSnapshot instead.
+ *
+ * @author johnmatthew
+ *
+ */
+public class SolverServer {
+
+	public static int DEFAULT_PORT = 8080;
+
+	public static void main(String[] args) throws IOException {
+
+		int port = DEFAULT_PORT;
+		GuessStrategy strategy = GuessStrategy.ENTROPY;
+
+		if(args.length >= 1) {
+			port = Integer.parseInt(args[0]);
+		}
+
+		if(args.length >= 2) {
+			strategy = GuessStrategy.valueOf(args[1].toUpperCase());
+		}
+
+		SolverMetrics.setEnabled(true);
+
+		String snapshotFile = System.getProperty("wordlejava.snapshot");
+		if(snapshotFile != null) {
+
+			SolverSnapshot snapshot = SolverSnapshot.load(Paths.get(snapshotFile));
+
+			SolverService service = new SolverService(snapshot, strategy);
+			service.start(port);
+
+			System.out.println("Serving " + snapshot + " on http://localhost:" + service.port() + "/next");
+			return;
+		}
+
+		WordleDictionary dictionary = GuessManager.importDictionaryFromWeb();
+
+		DictionaryRegistry registry = new DictionaryRegistry(dictionary, GuessManager::importDictionaryFromWeb, WordleGame.STANDARD_LENGTH);
+
+		SolverService service = new SolverService(registry, WordleGame.STANDARD_LENGTH, strategy);
+		service.start(port);
+
+		System.out.println("Serving words of " + dictionary + " on http://localhost:" + service.port() + "/next"
+				+ (SolverThreads.hasVirtualThreads() ? " with virtual threads" : ""));
+	}
+}
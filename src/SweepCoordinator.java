@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import wordlejava.*;
+
+/**
+ *
+ * Solves every answer of the standard library under each strategy, split into shards across
+ * worker JVMs on this machine, and prints the merged results of each strategy.
+ *
+ * 		java SweepCoordinator {workers} {shard size} {strategies}
+ *
+ * {strategies} is a comma separated list of GuessStrategy names, every strategy if unspecified.
+ * Workers load the library from the snapshot given by -Dwordlejava.snapshot, or from a snapshot
+ * written to a temporary file, so the corpus is only read once.
+ *
+ * @author johnmatthew
+ *
+ */
+public class SweepCoordinator {
+
+	public static int DEFAULT_WORKERS = 2;
+	public static int DEFAULT_SHARD_SIZE = 100;
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+
+		int workers = DEFAULT_WORKERS;
+		int shardSize = DEFAULT_SHARD_SIZE;
+		GuessStrategy[] strategies = GuessStrategy.values();
+
+		if(args.length >= 1) {
+			workers = Integer.parseInt(args[0]);
+		}
+
+		if(args.length >= 2) {
+			shardSize = Integer.parseInt(args[1]);
+		}
+
+		if(args.length >= 3) {
+
+			String[] names = args[2].split(",");
+			strategies = new GuessStrategy[names.length];
+			for(int i = 0; i < names.length; i++) {
+				strategies[i] = GuessStrategy.valueOf(names[i].trim().toUpperCase());
+			}
+		}
+
+		String snapshot = System.getProperty("wordlejava.snapshot");
+		WordleLibrary library = GuessManager.importLibraryFromSnapshot(snapshot, WordleGame.STANDARD_LENGTH);
+
+		if(snapshot == null) {
+
+			Path file = Files.createTempFile("sweep", ".snapshot");
+			file.toFile().deleteOnExit();
+			SolverSnapshot.build(library, false).write(file);
+			snapshot = file.toString();
+		}
+
+		List<String> workerCommand = Arrays.asList(ProcessHandle.current().info().command().orElse("java"),
+				"-Dwordlejava.snapshot=" + snapshot, "-cp", System.getProperty("java.class.path"), "SweepWorker");
+
+		ShardCoordinator coordinator = new ShardCoordinator(library, workerCommand);
+		List<ShardCoordinator.Shard> shards = ShardCoordinator.shards(strategies, library.answerCount(), shardSize);
+
+		long start = System.nanoTime();
+		Map<GuessStrategy, ShardCoordinator.Totals> totals = coordinator.run(shards, workers, workers);
+
+		for(ShardCoordinator.Totals t : totals.values()) {
+			System.out.println(t);
+		}
+
+		System.out.printf("%d shards on %d workers in %d ms, %d worker deaths%n", shards.size(), workers,
+				(System.nanoTime() - start) / 1000000, coordinator.deaths());
+	}
+}
@@ -0,0 +1,23 @@
+import java.io.IOException;
+import wordlejava.*;
+
+/**
+ *
+ * Worker process of SweepCoordinator. Loads the library from the snapshot the coordinator
+ * passes with -Dwordlejava.snapshot and solves the shards it is handed until the coordinator
+ * is done.
+ *
+ * 		java -Dwordlejava.snapshot={file} SweepWorker {port}
+ *
+ * @author johnmatthew
+ *
+ */
+public class SweepWorker {
+
+	public static void main(String[] args) throws IOException {
+
+		WordleLibrary library = GuessManager.importLibraryFromSnapshot(System.getProperty("wordlejava.snapshot"), WordleGame.STANDARD_LENGTH);
+
+		new ShardWorker(library).run(Integer.parseInt(args[0]));
+	}
+}
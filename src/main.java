@@ -1,20 +1,37 @@
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import wordlejava.*;
 
 public class main {
 	
 	public static int NUM_ITERATIONS = 5;
+	public static int CHECKPOINT_EVERY = 100;
+	public static int COST_REPORT_LIMIT = 50;
 	
 	public static void main(String[] args) {
 		
 		int numIterations = NUM_ITERATIONS;
+		GuessStrategy strategy = GuessStrategy.HIGHEST_IMPACT;
 		
-		if(args.length == 1) {
+		if(args.length >= 1) {
 			numIterations = Integer.parseInt(args[0]);
 		}
 		
-		LinkedList<WordleRecord> records = runIterations(numIterations);
+		if(args.length >= 2) {
+			strategy = GuessStrategy.valueOf(args[1].toUpperCase());
+		}
+		
+		String costFile = System.getProperty("wordlejava.cost.file");
+		if(costFile != null) {
+			GameCost.setEnabled(true);
+		}
+		
+		LinkedList<WordleRecord> records = runIterations(numIterations, strategy);
 		
 		for(WordleRecord r : records) {
 			System.out.println(r.toString());
@@ -22,28 +39,92 @@ public class main {
 		
 		System.out.println(Arrays.toString(tallyResults(records)));
 		
+		// to standard error like the checkpoint messages, since a resumed batch counts fewer games
+		if(SolverEvents.countersEnabled()) {
+			System.err.println(SolverEvents.counters());
+		}
+		
+		String metricsFile = System.getProperty("wordlejava.metrics.file");
+		if(metricsFile != null) {
+			try {
+				SolverMetrics.writePrometheus(Paths.get(metricsFile));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		
+		if(costFile != null) {
+			CostRollup rollup = new CostRollup();
+			rollup.addAll(records);
+			try (Writer out = Files.newBufferedWriter(Paths.get(costFile))) {
+				rollup.writeReport(out, CostRollup.Order.CPU, COST_REPORT_LIMIT);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		
 	}
 	
-	private static LinkedList<WordleRecord> runIterations(int iterations) {
+	/**
+	 *
+	 * Solves the games as an EvaluationBatch. Set -Dwordlejava.checkpoint={file} to save
+	 * progress every -Dwordlejava.checkpoint.every games and resume from the file if it exists,
+	 * and -Dwordlejava.seed={seed} to draw the same wordles on every run. A checkpoint is only
+	 * resumed with the same words, iterations and strategy it was made with, and what is said
+	 * about it goes to standard error so the output matches a run that wasn't stopped. The
+	 * library is loaded from -Dwordlejava.snapshot={file} if it is set.
+	 *
+	 */
+	private static LinkedList<WordleRecord> runIterations(int iterations, GuessStrategy strategy) {
 		
-		LinkedList<String> libraryFromWeb = GuessManager.importWordsToLibraryFromWeb(WordleGame.STANDARD_LENGTH);
+		WordleLibrary libraryFromWeb = GuessManager.importLibraryFromSnapshot(System.getProperty("wordlejava.snapshot"), WordleGame.STANDARD_LENGTH);
 		
-		LinkedList<WordleRecord> records = new LinkedList<>();
+		String checkpointFile = System.getProperty("wordlejava.checkpoint");
+		Path checkpoint = checkpointFile == null ? null : Paths.get(checkpointFile);
+		int checkpointEvery = Integer.getInteger("wordlejava.checkpoint.every", CHECKPOINT_EVERY);
+		long seed = Long.getLong("wordlejava.seed", new Random().nextLong());
 		
-		for(int i = 0; i < iterations; i++) {
+		try {
+			
+			EvaluationBatch batch;
+			
+			if(checkpoint != null && Files.exists(checkpoint)) {
+				
+				batch = EvaluationBatch.resume(checkpoint, libraryFromWeb);
+				
+				// a checkpoint only continues the batch it was made for
+				if(batch.iterations() != iterations || batch.strategy() != strategy) {
+					System.err.println("Checkpoint " + checkpoint + " is of " + batch.iterations() + " games of " + batch.strategy()
+							+ ", not " + iterations + " games of " + strategy + ". Delete it to start a new batch.");
+					return new LinkedList<>();
+				}
+				
+				if(batch.completed() == batch.iterations()) {
+					System.err.println("Checkpoint " + checkpoint + " is of a finished batch. Delete it to start a new batch.");
+				} else {
+					System.err.println("Resuming " + checkpoint + " at game " + batch.completed() + " of " + batch.iterations());
+				}
+				
+			} else {
+				batch = new EvaluationBatch(libraryFromWeb, strategy, iterations, seed);
+			}
+			
+			batch.run(checkpoint, checkpointEvery);
+			
+			return batch.records();
 			
-			LinkedList<String> library = new LinkedList<>();
-			library.addAll(libraryFromWeb);
+		} catch (IllegalArgumentException e) {
 			
-//			System.out.println("runIterations() library.size(): " + library.size()); // for testing
+			System.err.println(e.getMessage() + ". Delete it to start a new batch.");
 			
-			WordleSolver randomSolver = new WordleSolver(WordleGame.getRandomStandardGame(library), library);
-			WordleRecord r = randomSolver.solve();
-			records.add(r);
-//			new Scanner(System.in).nextLine(); 
+			return new LinkedList<>();
+			
+		} catch (IOException e) {
+			
+			e.printStackTrace();
+			
+			return new LinkedList<>();
 		}
-		
-		return records;
 	}
 	
 	private static int[] tallyResults(LinkedList<WordleRecord> records) {
@@ -0,0 +1,122 @@
+package wordlejava;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ *
+ * Solves many games at once in the background. Every game is solved by its own WordleSolver over
+ * a LibraryView, so all of them read the same WordleLibrary and FeedbackTable, which are never
+ * modified, without copying them.
+ *
+ * Work runs on a fixed number of threads. At most threads + queueCapacity games are accepted
+ * at once: submitting more blocks the caller until a game finishes, so a large batch can't
+ * queue up unbounded work.
+ *
+ * @author johnmatthew
+ *
+ */
+public class AsyncSolver implements AutoCloseable {
+
+	private final WordleLibrary library;
+	private final FeedbackTable feedbackTable;
+	private final GuessStrategy strategy;
+	private final ExecutorService executor;
+	private final Semaphore permits;
+
+	/**
+	 *
+	 * Creates a solver with its own threads.
+	 *
+	 * @param library the words to guess from and their priors
+	 * @param feedbackTable table of the patterns of the library. null to compute patterns
+	 * @param strategy the logic used to pick guesses
+	 * @param threads the number of games solved at the same time
+	 * @param queueCapacity the number of games that can wait for a thread
+	 */
+	public AsyncSolver(WordleLibrary library, FeedbackTable feedbackTable, GuessStrategy strategy, int threads, int queueCapacity) {
+
+		this.library = library;
+		this.feedbackTable = feedbackTable;
+		this.strategy = strategy;
+		this.executor = Executors.newFixedThreadPool(threads, SolverThreads.daemonThreads());
+		this.permits = new Semaphore(threads + queueCapacity);
+	}
+
+	/**
+	 *
+	 * Solves a standard game with the given wordle.
+	 *
+	 * @param wordle the wordle of the game
+	 * @return the record of the game once solved
+	 */
+	public CompletableFuture<WordleRecord> solve(String wordle) {
+
+		return this.solve(wordle, Collections.emptyList());
+	}
+
+	/**
+	 *
+	 * Solves a standard game with the given wordle that already has guesses made. The guesses
+	 * are made first and are included in the record.
+	 *
+	 * @param wordle the wordle of the game
+	 * @param previousGuesses the guesses already made in order
+	 * @return the record of the game once solved
+	 */
+	public CompletableFuture<WordleRecord> solve(String wordle, List<String> previousGuesses) {
+
+		try {
+			this.permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return CompletableFuture.failedFuture(e);
+		}
+
+		try {
+
+			return CompletableFuture.supplyAsync(() -> this.solveNow(wordle, previousGuesses), this.executor)
+					.whenComplete((record, e) -> this.permits.release());
+
+		} catch (RejectedExecutionException e) {
+
+			this.permits.release();
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 *
+	 * Solves a standard game for each wordle, blocking while the queue is full.
+	 *
+	 * @param wordles the wordles of the games
+	 * @return the record of each game in the same order
+	 */
+	public List<CompletableFuture<WordleRecord>> solveAll(List<String> wordles) {
+
+		List<CompletableFuture<WordleRecord>> records = new ArrayList<>(wordles.size());
+
+		for(String wordle : wordles) {
+			records.add(this.solve(wordle));
+		}
+
+		return records;
+	}
+
+	private WordleRecord solveNow(String wordle, List<String> previousGuesses) {
+
+		WordleGame game = new WordleGame(wordle, WordleGame.STANDARD_GUESSES);
+		WordleSolver solver = new WordleSolver(game, new LibraryView(this.library), this.strategy, this.library);
+		solver.guessManager().setFeedbackTable(this.feedbackTable);
+		solver.replay(previousGuesses);
+
+		return solver.solve();
+	}
+
+	/**
+	 *
+	 * Stops accepting games. Games already accepted are still solved.
+	 *
+	 */
+	public void close() { this.executor.shutdown(); }
+}
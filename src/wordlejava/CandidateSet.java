@@ -0,0 +1,646 @@
+package wordlejava;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ *
+ * Immutable compressed set of word indexes, split the same way as a Roaring bitmap. Indexes are
+ * grouped into chunks of 65536 by their upper 16 bits and each chunk is stored in whichever
+ * container is smallest: a sorted array for sparse chunks, a bitmap for dense chunks, or a list
+ * of runs for chunks made of long ranges. Sets of remaining words stay small even for large
+ * libraries and can be intersected without looking at the words.
+ *
+ * Sets with the same indexes are equal no matter how they are stored, so they can be used as
+ * keys of caches.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class CandidateSet {
+
+	private static final int ARRAY_MAX = 4096;
+	private static final int BITMAP_WORDS = 1024;
+
+	private static final CandidateSet EMPTY = new CandidateSet(new char[0], new Container[0]);
+
+	private final char[] keys;
+	private final Container[] containers;
+	private final int cardinality;
+	private int hash;
+
+	private CandidateSet(char[] keys, Container[] containers) {
+
+		this.keys = keys;
+		this.containers = containers;
+
+		int total = 0;
+		for(Container container : containers) {
+			total += container.cardinality();
+		}
+		this.cardinality = total;
+	}
+
+	/**
+	 *
+	 * The set with no indexes.
+	 *
+	 * @return the empty set
+	 */
+	public static CandidateSet empty() { return EMPTY; }
+
+	/**
+	 *
+	 * The set of every index from 0 up to but not including n, stored as runs.
+	 *
+	 * @param n the number of indexes
+	 * @return the set of the range
+	 */
+	public static CandidateSet range(int n) {
+
+		int numChunks = (n + 0xFFFF) >>> 16;
+		char[] keys = new char[numChunks];
+		Container[] containers = new Container[numChunks];
+
+		for(int i = 0; i < numChunks; i++) {
+
+			int length = Math.min(n - (i << 16), 1 << 16);
+			keys[i] = (char) i;
+			containers[i] = new RunContainer(new char[] {0}, new char[] {(char) (length - 1)}, 1);
+		}
+
+		return new CandidateSet(keys, containers);
+	}
+
+	/**
+	 *
+	 * Creates a set of indexes given in increasing order.
+	 *
+	 * @param sorted indexes in increasing order without duplicates
+	 * @param size the number of indexes to read from the array
+	 * @return the set of the indexes
+	 */
+	public static CandidateSet of(int[] sorted, int size) {
+
+		ArrayList<Character> keys = new ArrayList<>();
+		ArrayList<Container> containers = new ArrayList<>();
+		int start = 0;
+
+		while(start < size) {
+
+			int key = sorted[start] >>> 16;
+			int end = start;
+			while(end < size && sorted[end] >>> 16 == key) {
+				end++;
+			}
+
+			char[] values = new char[end - start];
+			for(int i = start; i < end; i++) {
+				values[i - start] = (char) sorted[i];
+			}
+
+			keys.add((char) key);
+			containers.add(optimize(new ArrayContainer(values, values.length)));
+			start = end;
+		}
+
+		return build(keys, containers);
+	}
+
+	private static CandidateSet build(List<Character> keyList, List<Container> containerList) {
+
+		if(containerList.isEmpty()) {
+			return EMPTY;
+		}
+
+		char[] keys = new char[keyList.size()];
+		for(int i = 0; i < keys.length; i++) {
+			keys[i] = keyList.get(i);
+		}
+
+		return new CandidateSet(keys, containerList.toArray(new Container[0]));
+	}
+
+	/**
+	 *
+	 * Indexes in both this set and another.
+	 *
+	 * @param other the other set
+	 * @return the intersection of the sets
+	 */
+	public CandidateSet and(CandidateSet other) {
+
+		ArrayList<Character> keys = new ArrayList<>();
+		ArrayList<Container> containers = new ArrayList<>();
+		int i = 0;
+		int j = 0;
+
+		while(i < this.keys.length && j < other.keys.length) {
+
+			if(this.keys[i] < other.keys[j]) {
+				i++;
+			} else if(this.keys[i] > other.keys[j]) {
+				j++;
+			} else {
+
+				Container container = this.containers[i].and(other.containers[j]);
+				if(container.cardinality() > 0) {
+					keys.add(this.keys[i]);
+					containers.add(optimize(container));
+				}
+				i++;
+				j++;
+			}
+		}
+
+		return build(keys, containers);
+	}
+
+	/**
+	 *
+	 * Indexes in this set but not in another.
+	 *
+	 * @param other the other set
+	 * @return the difference of the sets
+	 */
+	public CandidateSet andNot(CandidateSet other) {
+
+		ArrayList<Character> keys = new ArrayList<>();
+		ArrayList<Container> containers = new ArrayList<>();
+		int j = 0;
+
+		for(int i = 0; i < this.keys.length; i++) {
+
+			while(j < other.keys.length && other.keys[j] < this.keys[i]) {
+				j++;
+			}
+
+			Container container = this.containers[i];
+			if(j < other.keys.length && other.keys[j] == this.keys[i]) {
+				container = optimize(container.andNot(other.containers[j]));
+			}
+
+			if(container.cardinality() > 0) {
+				keys.add(this.keys[i]);
+				containers.add(container);
+			}
+		}
+
+		return build(keys, containers);
+	}
+
+	/**
+	 *
+	 * The number of indexes in the set.
+	 *
+	 * @return int of the cardinality
+	 */
+	public int cardinality() { return this.cardinality; }
+
+	/**
+	 *
+	 * Checks if an index is in the set.
+	 *
+	 * @param index the index to look for
+	 * @return true if the index is in the set
+	 */
+	public boolean contains(int index) {
+
+		int chunk = Arrays.binarySearch(this.keys, (char) (index >>> 16));
+
+		return chunk >= 0 && this.containers[chunk].contains((char) index);
+	}
+
+	/**
+	 *
+	 * Calls an action with every index in increasing order.
+	 *
+	 * @param action called with each index
+	 */
+	public void forEach(IntConsumer action) {
+
+		for(int i = 0; i < this.keys.length; i++) {
+			this.containers[i].forEach(this.keys[i] << 16, action);
+		}
+	}
+
+	/**
+	 *
+	 * The indexes of the set in increasing order.
+	 *
+	 * @return array of the indexes
+	 */
+	public int[] toArray() {
+
+		int[] indexes = new int[this.cardinality];
+		int[] next = {0};
+
+		this.forEach(index -> indexes[next[0]++] = index);
+
+		return indexes;
+	}
+
+	/**
+	 *
+	 * Estimates the bytes used by the containers of the set.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long sizeInBytes() {
+
+		long bytes = 16 + 2L * this.keys.length;
+		for(Container container : this.containers) {
+			bytes += container.sizeInBytes();
+		}
+
+		return bytes;
+	}
+
+	public boolean equals(Object o) {
+
+		if(this == o) {
+			return true;
+		}
+
+		if(!(o instanceof CandidateSet)) {
+			return false;
+		}
+
+		CandidateSet other = (CandidateSet) o;
+		if(this.cardinality != other.cardinality || this.hashCode() != other.hashCode()
+				|| !Arrays.equals(this.keys, other.keys)) {
+			return false;
+		}
+
+		for(int i = 0; i < this.containers.length; i++) {
+			if(!this.containers[i].sameValues(other.containers[i])) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public int hashCode() {
+
+		int h = this.hash;
+
+		if(h == 0) {
+
+			int[] acc = {1};
+			this.forEach(index -> acc[0] = 31 * acc[0] + index);
+			h = acc[0] == 0 ? 1 : acc[0];
+			this.hash = h;
+		}
+
+		return h;
+	}
+
+	public String toString() {
+
+		StringBuilder sb = new StringBuilder("{");
+		this.forEach(index -> sb.append(sb.length() > 1 ? ", " : "").append(index));
+
+		return sb.append('}').toString();
+	}
+
+	/**
+	 *
+	 * Stores a container in its smallest form.
+	 *
+	 * @param container the container to store
+	 * @return the container as an array, bitmap or runs
+	 */
+	private static Container optimize(Container container) {
+
+		int cardinality = container.cardinality();
+		int runs = container.numRuns();
+
+		long arrayBytes = 2L * cardinality;
+		long bitmapBytes = 8L * BITMAP_WORDS;
+		long runBytes = 4L * runs;
+
+		if(runBytes < arrayBytes && runBytes < bitmapBytes) {
+			return container instanceof RunContainer ? container : RunContainer.from(container, runs);
+		}
+
+		if(cardinality <= ARRAY_MAX) {
+			return container instanceof ArrayContainer ? container : ArrayContainer.from(container);
+		}
+
+		return container instanceof BitmapContainer ? container : container.toBitmap();
+	}
+
+	/**
+	 *
+	 * The low 16 bits of the indexes of one chunk.
+	 *
+	 */
+	private abstract static class Container {
+
+		abstract int cardinality();
+
+		abstract boolean contains(char value);
+
+		abstract void forEach(int high, IntConsumer action);
+
+		abstract BitmapContainer toBitmap();
+
+		abstract long sizeInBytes();
+
+		/**
+		 * The number of runs of consecutive values.
+		 */
+		int numRuns() {
+
+			int[] runs = {0};
+			int[] last = {-2};
+
+			this.forEach(0, value -> {
+				if(value != last[0] + 1) {
+					runs[0]++;
+				}
+				last[0] = value;
+			});
+
+			return runs[0];
+		}
+
+		Container and(Container other) {
+
+			if(this instanceof ArrayContainer) {
+				return ((ArrayContainer) this).filter(other, true);
+			}
+
+			if(other instanceof ArrayContainer) {
+				return ((ArrayContainer) other).filter(this, true);
+			}
+
+			return this.toBitmap().and(other.toBitmap());
+		}
+
+		Container andNot(Container other) {
+
+			if(this instanceof ArrayContainer) {
+				return ((ArrayContainer) this).filter(other, false);
+			}
+
+			return this.toBitmap().subtract(other);
+		}
+
+		boolean sameValues(Container other) {
+
+			if(this.cardinality() != other.cardinality()) {
+				return false;
+			}
+
+			BitmapContainer a = this.toBitmap();
+			BitmapContainer b = other.toBitmap();
+
+			return Arrays.equals(a.words, b.words);
+		}
+	}
+
+	private static final class ArrayContainer extends Container {
+
+		private final char[] values;
+		private final int size;
+
+		private ArrayContainer(char[] values, int size) {
+
+			this.values = values;
+			this.size = size;
+		}
+
+		private static ArrayContainer from(Container container) {
+
+			char[] values = new char[container.cardinality()];
+			int[] next = {0};
+			container.forEach(0, value -> values[next[0]++] = (char) value);
+
+			return new ArrayContainer(values, values.length);
+		}
+
+		/**
+		 * Keeps the values that are, or are not, in another container.
+		 */
+		private ArrayContainer filter(Container other, boolean keepContained) {
+
+			char[] kept = new char[this.size];
+			int keptSize = 0;
+
+			for(int i = 0; i < this.size; i++) {
+				if(other.contains(this.values[i]) == keepContained) {
+					kept[keptSize++] = this.values[i];
+				}
+			}
+
+			return new ArrayContainer(kept, keptSize);
+		}
+
+		int cardinality() { return this.size; }
+
+		boolean contains(char value) { return Arrays.binarySearch(this.values, 0, this.size, value) >= 0; }
+
+		void forEach(int high, IntConsumer action) {
+
+			for(int i = 0; i < this.size; i++) {
+				action.accept(high | this.values[i]);
+			}
+		}
+
+		BitmapContainer toBitmap() {
+
+			long[] words = new long[BITMAP_WORDS];
+			for(int i = 0; i < this.size; i++) {
+				words[this.values[i] >>> 6] |= 1L << this.values[i];
+			}
+
+			return new BitmapContainer(words, this.size);
+		}
+
+		long sizeInBytes() { return 16 + 2L * this.size; }
+	}
+
+	private static final class BitmapContainer extends Container {
+
+		private final long[] words;
+		private final int cardinality;
+
+		private BitmapContainer(long[] words, int cardinality) {
+
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		private BitmapContainer and(BitmapContainer other) {
+
+			long[] result = new long[BITMAP_WORDS];
+			int count = 0;
+
+			for(int i = 0; i < BITMAP_WORDS; i++) {
+				result[i] = this.words[i] & other.words[i];
+				count += Long.bitCount(result[i]);
+			}
+
+			return new BitmapContainer(result, count);
+		}
+
+		private BitmapContainer subtract(Container other) {
+
+			long[] result = this.words.clone();
+			int count = this.cardinality;
+
+			if(other instanceof ArrayContainer) {
+
+				ArrayContainer array = (ArrayContainer) other;
+				for(int i = 0; i < array.size; i++) {
+
+					char value = array.values[i];
+					long bit = 1L << value;
+					if((result[value >>> 6] & bit) != 0) {
+						result[value >>> 6] &= ~bit;
+						count--;
+					}
+				}
+
+				return new BitmapContainer(result, count);
+			}
+
+			long[] otherWords = other.toBitmap().words;
+			count = 0;
+
+			for(int i = 0; i < BITMAP_WORDS; i++) {
+				result[i] &= ~otherWords[i];
+				count += Long.bitCount(result[i]);
+			}
+
+			return new BitmapContainer(result, count);
+		}
+
+		int cardinality() { return this.cardinality; }
+
+		boolean contains(char value) { return (this.words[value >>> 6] & (1L << value)) != 0; }
+
+		void forEach(int high, IntConsumer action) {
+
+			for(int i = 0; i < BITMAP_WORDS; i++) {
+
+				long word = this.words[i];
+				while(word != 0) {
+					action.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+		}
+
+		int numRuns() {
+
+			int runs = 0;
+
+			for(int i = 0; i < BITMAP_WORDS; i++) {
+
+				long word = this.words[i];
+				long carry = i == 0 ? 0 : this.words[i - 1] >>> 63;
+				// count bits that are set without the bit before them set
+				runs += Long.bitCount(word & ~((word << 1) | carry));
+			}
+
+			return runs;
+		}
+
+		BitmapContainer toBitmap() { return this; }
+
+		long sizeInBytes() { return 16 + 8L * BITMAP_WORDS; }
+	}
+
+	private static final class RunContainer extends Container {
+
+		private final char[] starts;
+		private final char[] lengths;
+		private final int numRuns;
+		private final int cardinality;
+
+		/**
+		 * Runs cover start to start + length, inclusive.
+		 */
+		private RunContainer(char[] starts, char[] lengths, int numRuns) {
+
+			this.starts = starts;
+			this.lengths = lengths;
+			this.numRuns = numRuns;
+
+			int total = 0;
+			for(int i = 0; i < numRuns; i++) {
+				total += lengths[i] + 1;
+			}
+			this.cardinality = total;
+		}
+
+		private static RunContainer from(Container container, int numRuns) {
+
+			char[] starts = new char[numRuns];
+			char[] lengths = new char[numRuns];
+			int[] run = {-1};
+			int[] last = {-2};
+
+			container.forEach(0, value -> {
+				if(value != last[0] + 1) {
+					run[0]++;
+					starts[run[0]] = (char) value;
+				}
+				lengths[run[0]] = (char) (value - starts[run[0]]);
+				last[0] = value;
+			});
+
+			return new RunContainer(starts, lengths, numRuns);
+		}
+
+		int cardinality() { return this.cardinality; }
+
+		boolean contains(char value) {
+
+			int low = 0;
+			int high = this.numRuns - 1;
+
+			while(low <= high) {
+
+				int mid = (low + high) >>> 1;
+				if(this.starts[mid] > value) {
+					high = mid - 1;
+				} else if(this.starts[mid] + this.lengths[mid] < value) {
+					low = mid + 1;
+				} else {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		void forEach(int high, IntConsumer action) {
+
+			for(int i = 0; i < this.numRuns; i++) {
+				for(int value = this.starts[i]; value <= this.starts[i] + this.lengths[i]; value++) {
+					action.accept(high | value);
+				}
+			}
+		}
+
+		int numRuns() { return this.numRuns; }
+
+		BitmapContainer toBitmap() {
+
+			long[] words = new long[BITMAP_WORDS];
+			for(int i = 0; i < this.numRuns; i++) {
+				for(int value = this.starts[i]; value <= this.starts[i] + this.lengths[i]; value++) {
+					words[value >>> 6] |= 1L << value;
+				}
+			}
+
+			return new BitmapContainer(words, this.cardinality);
+		}
+
+		long sizeInBytes() { return 16 + 4L * this.numRuns; }
+	}
+}
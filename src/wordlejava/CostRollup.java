@@ -0,0 +1,232 @@
+package wordlejava;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * Totals of the GameCost of measured WordleRecords for each answer, so the answers that are
+ * expensive to solve can be found in a real run instead of a benchmark. Records can be added
+ * from many threads at once. Records without a cost are skipped.
+ *
+ * @author johnmatthew
+ *
+ */
+public class CostRollup {
+
+	/**
+	 *
+	 * What the report is sorted by, most expensive first.
+	 *
+	 */
+	public enum Order { CPU, ALLOCATION }
+
+	private final ConcurrentHashMap<String, Totals> answers;
+
+	public CostRollup() {
+
+		this.answers = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 *
+	 * Adds the cost of a record to the totals of its answer.
+	 *
+	 * @param record the record of a measured game
+	 * @return true if the record had a cost
+	 */
+	public boolean add(WordleRecord record) {
+
+		GameCost cost = record.getCost();
+		if(cost == null) {
+			return false;
+		}
+
+		Totals totals = this.answers.computeIfAbsent(record.getWordle(), Totals::new);
+		synchronized(totals) {
+			totals.add(record, cost);
+		}
+
+		return true;
+	}
+
+	/**
+	 *
+	 * Adds the cost of every record.
+	 *
+	 * @param records the records of measured games
+	 */
+	public void addAll(Collection<WordleRecord> records) {
+
+		for(WordleRecord record : records) {
+			this.add(record);
+		}
+	}
+
+	/**
+	 *
+	 * The totals of every answer, most expensive first.
+	 *
+	 * @param order what to sort by
+	 * @return the sorted totals
+	 */
+	public List<Totals> sorted(Order order) {
+
+		ArrayList<Totals> sorted = new ArrayList<>(this.answers.values());
+		HashMap<Totals, Double> keys = new HashMap<>();
+
+		// read every key once so records added while sorting can't reorder it
+		for(Totals totals : sorted) {
+			synchronized(totals) {
+				keys.put(totals, order == Order.CPU ? totals.meanCpuNanos() : totals.meanAllocatedBytes());
+			}
+		}
+
+		sorted.sort(Comparator.comparing((Totals totals) -> keys.get(totals)).reversed().thenComparing(Totals::answer));
+
+		return sorted;
+	}
+
+	/**
+	 *
+	 * Writes a tab separated line with a header for the most expensive answers, followed by the
+	 * mean cost of each guess number over every game.
+	 *
+	 * @param out where the report is written
+	 * @param order what to sort by
+	 * @param limit the most answers written
+	 * @throws IOException if writing fails
+	 */
+	public void writeReport(Writer out, Order order, int limit) throws IOException {
+
+		out.write("answer\tgames\tmean_guesses\tmean_cpu_us\tmax_cpu_us\tmean_alloc_bytes\tmax_alloc_bytes\n");
+
+		List<Totals> sorted = this.sorted(order);
+		for(int i = 0; i < Math.min(limit, sorted.size()); i++) {
+			out.write(sorted.get(i) + "\n");
+		}
+
+		long[] guesses = new long[WordleGame.STANDARD_GUESSES];
+		long[] cpuNanos = new long[WordleGame.STANDARD_GUESSES];
+		long[] allocatedBytes = new long[WordleGame.STANDARD_GUESSES];
+
+		for(Totals totals : sorted) {
+			synchronized(totals) {
+
+				int n = totals.guessCpuNanos.length;
+				if(n > guesses.length) {
+					guesses = Arrays.copyOf(guesses, n);
+					cpuNanos = Arrays.copyOf(cpuNanos, n);
+					allocatedBytes = Arrays.copyOf(allocatedBytes, n);
+				}
+
+				for(int i = 0; i < n; i++) {
+					guesses[i] += totals.guessCounts[i];
+					cpuNanos[i] += totals.guessCpuNanos[i];
+					allocatedBytes[i] += totals.guessAllocatedBytes[i];
+				}
+			}
+		}
+
+		out.write("\nguess\tgames\tmean_cpu_us\tmean_alloc_bytes\n");
+
+		for(int i = 0; i < guesses.length && guesses[i] > 0; i++) {
+			out.write(String.format("%d\t%d\t%.1f\t%.0f%n", i + 1, guesses[i], cpuNanos[i] / 1e3 / guesses[i], (double) allocatedBytes[i] / guesses[i]));
+		}
+
+		out.flush();
+	}
+
+	/**
+	 *
+	 * The number of answers with at least one measured game.
+	 *
+	 * @return int of the answers
+	 */
+	public int size() { return this.answers.size(); }
+
+	/**
+	 *
+	 * The cost of every measured game of an answer.
+	 *
+	 */
+	public static final class Totals {
+
+		private final String answer;
+		private long games;
+		private long guesses;
+		private long cpuNanos;
+		private long maxCpuNanos;
+		private long allocatedBytes;
+		private long maxAllocatedBytes;
+		private long[] guessCounts = new long[0];
+		private long[] guessCpuNanos = new long[0];
+		private long[] guessAllocatedBytes = new long[0];
+
+		private Totals(String answer) {
+
+			this.answer = answer;
+		}
+
+		private void add(WordleRecord record, GameCost cost) {
+
+			this.games++;
+			this.guesses += record.getGuesses().size();
+			this.cpuNanos += Math.max(0, cost.totalCpuNanos());
+			this.maxCpuNanos = Math.max(this.maxCpuNanos, cost.totalCpuNanos());
+			this.allocatedBytes += Math.max(0, cost.totalAllocatedBytes());
+			this.maxAllocatedBytes = Math.max(this.maxAllocatedBytes, cost.totalAllocatedBytes());
+
+			if(cost.guesses() > this.guessCounts.length) {
+				this.guessCounts = Arrays.copyOf(this.guessCounts, cost.guesses());
+				this.guessCpuNanos = Arrays.copyOf(this.guessCpuNanos, cost.guesses());
+				this.guessAllocatedBytes = Arrays.copyOf(this.guessAllocatedBytes, cost.guesses());
+			}
+
+			for(int i = 0; i < cost.guesses(); i++) {
+				this.guessCounts[i]++;
+				this.guessCpuNanos[i] += Math.max(0, cost.cpuNanos(i));
+				this.guessAllocatedBytes[i] += Math.max(0, cost.allocatedBytes(i));
+			}
+		}
+
+		/**
+		 *
+		 * The answer of the games.
+		 *
+		 * @return the answer
+		 */
+		public String answer() { return this.answer; }
+
+		/**
+		 *
+		 * The number of measured games of the answer.
+		 *
+		 * @return long of the games
+		 */
+		public long games() { return this.games; }
+
+		/**
+		 *
+		 * The mean CPU time of a game of the answer.
+		 *
+		 * @return nanoseconds of CPU time
+		 */
+		public double meanCpuNanos() { return (double) this.cpuNanos / this.games; }
+
+		/**
+		 *
+		 * The mean bytes allocated by a game of the answer.
+		 *
+		 * @return the allocated bytes
+		 */
+		public double meanAllocatedBytes() { return (double) this.allocatedBytes / this.games; }
+
+		public String toString() {
+
+			return String.format("%s\t%d\t%.2f\t%.1f\t%.1f\t%.0f\t%d", this.answer, this.games, (double) this.guesses / this.games,
+					this.meanCpuNanos() / 1e3, this.maxCpuNanos / 1e3, this.meanAllocatedBytes(), this.maxAllocatedBytes);
+		}
+	}
+}
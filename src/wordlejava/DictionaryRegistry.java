@@ -0,0 +1,163 @@
+package wordlejava;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ *
+ * Holds the WordleDictionary currently in use so the words can be updated without a restart.
+ * A reload reads the new dictionary and builds the libraries and letter sets of the chosen
+ * lengths on a background thread, then publishes it with a single reference swap. Users of the
+ * dictionary can add hooks that prepare their own state for a new dictionary on the same thread
+ * before it is published. Reading the current dictionary never locks or waits on a reload.
+ *
+ * Dictionaries are immutable, so a game that took its library before a reload keeps playing on
+ * it while games started after the swap get the new one.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class DictionaryRegistry implements AutoCloseable {
+
+	private final AtomicReference<Version> current;
+	private final Supplier<WordleDictionary> loader;
+	private final int[] warmLengths;
+	private final ExecutorService builder;
+	private final CopyOnWriteArrayList<Consumer<WordleDictionary>> reloadHooks;
+
+	/**
+	 *
+	 * Creates a registry publishing a dictionary that has already been read.
+	 *
+	 * @param dictionary the first dictionary
+	 * @param loader reads a new dictionary on each reload. May return null if reading fails
+	 * @param warmLengths lengths whose libraries are built before a new dictionary is published
+	 */
+	public DictionaryRegistry(WordleDictionary dictionary, Supplier<WordleDictionary> loader, int... warmLengths) {
+
+		this.current = new AtomicReference<>(new Version(dictionary, 1));
+		this.loader = loader;
+		this.warmLengths = warmLengths.clone();
+		this.builder = Executors.newSingleThreadExecutor(SolverThreads.daemonThreads());
+		this.reloadHooks = new CopyOnWriteArrayList<>();
+	}
+
+	/**
+	 *
+	 * Creates a registry of a dictionary that is never reloaded.
+	 *
+	 * @param dictionary the only dictionary
+	 * @return registry always publishing the dictionary
+	 */
+	public static DictionaryRegistry of(WordleDictionary dictionary) {
+
+		return new DictionaryRegistry(dictionary, null);
+	}
+
+	/**
+	 *
+	 * The dictionary new games should use.
+	 *
+	 * @return the most recently published dictionary
+	 */
+	public WordleDictionary current() { return this.current.get().dictionary; }
+
+	/**
+	 *
+	 * The number of the current dictionary, starting at 1 and counting up with each reload.
+	 *
+	 * @return the version of the current dictionary
+	 */
+	public long version() { return this.current.get().number; }
+
+	/**
+	 *
+	 * Whether reload() can read a new dictionary.
+	 *
+	 * @return false if the registry has no loader
+	 */
+	public boolean reloadable() { return this.loader != null; }
+
+	/**
+	 *
+	 * Adds a hook run with each new dictionary on the background thread before it is
+	 * published, so state built from it is ready when the first game uses it. A hook that
+	 * throws doesn't stop the dictionary from being published.
+	 *
+	 * @param hook prepares for a new dictionary
+	 */
+	public void addReloadHook(Consumer<WordleDictionary> hook) { this.reloadHooks.add(hook); }
+
+	/**
+	 *
+	 * Reads a new dictionary in the background and publishes it once the libraries of the warm
+	 * lengths are built and the reload hooks have run. Reloads run one at a time in the order
+	 * they were asked for.
+	 *
+	 * @return completes with the published dictionary, or exceptionally if it couldn't be read
+	 */
+	public CompletableFuture<WordleDictionary> reload() {
+
+		if(this.loader == null) {
+			return CompletableFuture.failedFuture(new IllegalStateException("registry has no loader"));
+		}
+
+		return CompletableFuture.supplyAsync(() -> {
+
+			WordleDictionary dictionary = this.loader.get();
+			if(dictionary == null) {
+				throw new IllegalStateException("dictionary couldn't be read");
+			}
+
+			for(int length : this.warmLengths) {
+
+				WordleLibrary library = dictionary.library(length);
+				if(library != null) {
+					library.all();
+				}
+			}
+
+			for(Consumer<WordleDictionary> hook : this.reloadHooks) {
+				try {
+					hook.accept(dictionary);
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+			}
+
+			Version previous = this.current.get();
+			this.current.set(new Version(dictionary, previous.number + 1));
+
+			return dictionary;
+
+		}, this.builder);
+	}
+
+	/**
+	 *
+	 * Stops the background thread. Reloads in progress are finished.
+	 *
+	 */
+	public void close() { this.builder.shutdown(); }
+
+	public String toString() { return "version " + this.version() + ": " + this.current(); }
+
+	/**
+	 *
+	 * A published dictionary and its number.
+	 *
+	 */
+	private static final class Version {
+
+		private final WordleDictionary dictionary;
+		private final long number;
+
+		private Version(WordleDictionary dictionary, long number) {
+
+			this.dictionary = dictionary;
+			this.number = number;
+		}
+	}
+}
@@ -0,0 +1,352 @@
+package wordlejava;
+
+import java.util.*;
+
+/**
+ *
+ * Checks the optimized ways of solving against the reference logic on random games, so a fast
+ * path can't quietly change a result. The reference is WordleGame.getResult() for feedback and a
+ * GuessManager over a LinkedList of words, refined by reading every word, computing every pattern
+ * and with no memo. Each optimized engine is a GuessManager over a LibraryView refined with
+ * CandidateSets, optionally reading patterns from a FeedbackTable, and SolverService with its
+ * memo of guesses.
+ *
+ * A case is a wordle and a list of guesses. After every guess of a case the harness checks that
+ *
+ * 		feedback:   WordleGame.getPattern() and every table agree with getResult()
+ * 		candidates: every engine has the same remaining words in the same order as the reference
+ * 		guess:      every engine picks the same next guess with each strategy as the reference
+ *
+ * Next guesses are only checked once at most maxScored words remain since the reference scores
+ * slowly. The first case that fails is cut down by removing guesses while it still fails the
+ * same way, leaving a short reproducer.
+ *
+ * @author johnmatthew
+ *
+ */
+public class DifferentialHarness {
+
+	private final WordleLibrary library;
+	private final LinkedHashMap<String, FeedbackTable> tables;
+	private final SolverService service;
+	private final int maxScored;
+	private long checks;
+
+	/**
+	 *
+	 * Creates a harness for a library.
+	 *
+	 * @param library the words to play with
+	 * @param tables tables of the library to check, each an engine of its own, by name
+	 * @param maxScored the most remaining words at which next guesses are checked
+	 */
+	public DifferentialHarness(WordleLibrary library, Map<String, FeedbackTable> tables, int maxScored) {
+
+		this.library = library;
+		this.tables = new LinkedHashMap<>(tables);
+		this.service = new SolverService(library, GuessStrategy.HIGHEST_IMPACT);
+		this.maxScored = maxScored;
+	}
+
+	/**
+	 *
+	 * Checks random cases until one fails or every trial passes.
+	 *
+	 * @param trials the number of cases
+	 * @param seed the seed of the cases. Case i of a seed is always the same
+	 * @return the minimized mismatch of the first failing case. null if every case passed
+	 */
+	public Mismatch run(int trials, long seed) {
+
+		for(int i = 0; i < trials; i++) {
+
+			Case c = this.randomCase(EvaluationBatch.gameRandom(seed, i));
+			Mismatch mismatch = this.check(c);
+
+			if(mismatch != null) {
+				return this.minimize(mismatch);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 *
+	 * Draws a wordle from the answers and guesses until the game would be over. Guesses are
+	 * drawn from every word or from the words still remaining, so cases reach both broad and
+	 * narrow states.
+	 *
+	 */
+	private Case randomCase(Random random) {
+
+		String wordle = this.library.word(random.nextInt(this.library.answerCount()));
+		LinkedList<String> remaining = new LinkedList<>(this.library.words());
+		GuessManager guessManager = new GuessManager(this.library.wordleLength(), remaining);
+		ArrayList<String> guesses = new ArrayList<>();
+
+		while(guesses.size() < WordleGame.STANDARD_GUESSES && !remaining.isEmpty()) {
+
+			String guess = random.nextBoolean() ? this.library.word(random.nextInt(this.library.size()))
+					: remaining.get(random.nextInt(remaining.size()));
+
+			guesses.add(guess);
+			if(guess.equals(wordle)) {
+				break;
+			}
+
+			guessManager.refineLibrary(guess.toCharArray(), results(guess, wordle));
+		}
+
+		return new Case(wordle, guesses);
+	}
+
+	/**
+	 *
+	 * The results of a guess from the reference, a game with the guess as its only guess.
+	 *
+	 */
+	private static int[] results(String guess, String wordle) {
+
+		WordleGame game = new WordleGame(wordle, 1);
+		game.guess(guess);
+
+		return game.getLastResults();
+	}
+
+	/**
+	 *
+	 * Replays a case through the reference and every engine.
+	 *
+	 * @param c the case to check
+	 * @return the first mismatch. null if every check agreed
+	 */
+	public Mismatch check(Case c) {
+
+		int wordleLength = this.library.wordleLength();
+		int wordleIndex = this.library.indexOf(c.wordle);
+
+		LinkedList<String> reference = new LinkedList<>(this.library.words());
+		GuessManager referenceManager = new GuessManager(wordleLength, reference);
+		referenceManager.setPriors(this.library);
+
+		LinkedHashMap<String, LibraryView> views = new LinkedHashMap<>();
+		LinkedHashMap<String, GuessManager> managers = new LinkedHashMap<>();
+
+		LinkedHashMap<String, FeedbackTable> engines = new LinkedHashMap<>();
+		engines.put("view", null);
+		for(Map.Entry<String, FeedbackTable> table : this.tables.entrySet()) {
+			engines.put("view+" + table.getKey(), table.getValue());
+		}
+
+		for(Map.Entry<String, FeedbackTable> engine : engines.entrySet()) {
+
+			LibraryView view = new LibraryView(this.library);
+			GuessManager guessManager = new GuessManager(wordleLength, view);
+			guessManager.setPriors(this.library);
+			guessManager.setFeedbackTable(engine.getValue());
+
+			views.put(engine.getKey(), view);
+			managers.put(engine.getKey(), guessManager);
+		}
+
+		ArrayList<String> historyGuesses = new ArrayList<>();
+		ArrayList<int[]> historyResults = new ArrayList<>();
+
+		for(int step = 0; step < c.guesses.size(); step++) {
+
+			String guess = c.guesses.get(step);
+			int guessIndex = this.library.indexOf(guess);
+
+			int[] results = results(guess, c.wordle);
+			int expected = WordleGame.encodePattern(results);
+
+			this.checks++;
+			int pattern = WordleGame.getPattern(guess, c.wordle);
+			if(pattern != expected) {
+				return new Mismatch(c, step, "feedback", "getPattern", Integer.toString(expected), Integer.toString(pattern));
+			}
+
+			for(Map.Entry<String, FeedbackTable> table : this.tables.entrySet()) {
+
+				this.checks++;
+				pattern = table.getValue().pattern(guessIndex, wordleIndex);
+				if(pattern != expected) {
+					return new Mismatch(c, step, "feedback", table.getKey(), Integer.toString(expected), Integer.toString(pattern));
+				}
+			}
+
+			referenceManager.refineLibrary(guess.toCharArray(), results);
+			for(GuessManager guessManager : managers.values()) {
+				guessManager.refineLibrary(guess.toCharArray(), results);
+			}
+
+			historyGuesses.add(guess);
+			historyResults.add(results);
+
+			for(Map.Entry<String, LibraryView> view : views.entrySet()) {
+
+				this.checks++;
+				if(!reference.equals(view.getValue())) {
+					return new Mismatch(c, step, "candidates", view.getKey(), describe(reference), describe(view.getValue()));
+				}
+			}
+
+			if(reference.isEmpty() || reference.size() > this.maxScored) {
+				continue;
+			}
+
+			GuessHistory history = new GuessHistory(new ArrayList<>(historyGuesses), new ArrayList<>(historyResults));
+
+			for(GuessStrategy strategy : GuessStrategy.values()) {
+
+				referenceManager.setStrategy(strategy);
+				String expectedGuess = referenceManager.getNextWord();
+
+				for(Map.Entry<String, GuessManager> engine : managers.entrySet()) {
+
+					this.checks++;
+					engine.getValue().setStrategy(strategy);
+					String actual = engine.getValue().getNextWord();
+
+					if(!Objects.equals(expectedGuess, actual)) {
+						return new Mismatch(c, step, "guess " + strategy, engine.getKey(), expectedGuess, actual);
+					}
+				}
+
+				this.checks++;
+				String actual = this.service.nextGuess(history, strategy).guess();
+				if(!Objects.equals(expectedGuess, actual)) {
+					return new Mismatch(c, step, "guess " + strategy, "service", expectedGuess, actual);
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 *
+	 * Cuts a failing case down to the guesses it needs to fail the same way: guesses after the
+	 * failing one are dropped, then guesses are removed one at a time while it still fails.
+	 *
+	 * @param mismatch the mismatch of the case
+	 * @return the mismatch of the smallest case found
+	 */
+	public Mismatch minimize(Mismatch mismatch) {
+
+		Mismatch smallest = mismatch;
+		Case c = new Case(mismatch.c.wordle, mismatch.c.guesses.subList(0, mismatch.step + 1));
+
+		Mismatch truncated = this.check(c);
+		if(truncated != null && truncated.sameFailure(mismatch)) {
+			smallest = truncated;
+		}
+
+		boolean removed = true;
+
+		while(removed) {
+
+			removed = false;
+			List<String> guesses = smallest.c.guesses;
+
+			for(int i = 0; i < guesses.size() && guesses.size() > 1; i++) {
+
+				ArrayList<String> fewer = new ArrayList<>(guesses);
+				fewer.remove(i);
+
+				Mismatch candidate = this.check(new Case(smallest.c.wordle, fewer));
+
+				if(candidate != null && candidate.sameFailure(mismatch)) {
+					smallest = candidate;
+					removed = true;
+					break;
+				}
+			}
+		}
+
+		return smallest;
+	}
+
+	private static String describe(List<String> words) {
+
+		if(words.size() <= 8) {
+			return words.size() + " " + words;
+		}
+
+		return words.size() + " " + words.subList(0, 8) + "...";
+	}
+
+	/**
+	 *
+	 * The number of comparisons made so far.
+	 *
+	 * @return long of the checks
+	 */
+	public long checks() { return this.checks; }
+
+	/**
+	 *
+	 * A wordle and the guesses made against it.
+	 *
+	 */
+	public static final class Case {
+
+		private final String wordle;
+		private final List<String> guesses;
+
+		public Case(String wordle, List<String> guesses) {
+
+			this.wordle = wordle;
+			this.guesses = new ArrayList<>(guesses);
+		}
+
+		/**
+		 *
+		 * Returns the case as the arguments that replay it.
+		 *
+		 */
+		public String toString() { return this.wordle + " " + String.join(",", this.guesses); }
+	}
+
+	/**
+	 *
+	 * A check an engine didn't agree with the reference on.
+	 *
+	 */
+	public static final class Mismatch {
+
+		private final Case c;
+		private final int step;
+		private final String check;
+		private final String engine;
+		private final String expected;
+		private final String actual;
+
+		private Mismatch(Case c, int step, String check, String engine, String expected, String actual) {
+
+			this.c = c;
+			this.step = step;
+			this.check = check;
+			this.engine = engine;
+			this.expected = expected;
+			this.actual = actual;
+		}
+
+		private boolean sameFailure(Mismatch other) { return this.check.equals(other.check) && this.engine.equals(other.engine); }
+
+		/**
+		 *
+		 * The case that failed.
+		 *
+		 * @return the case
+		 */
+		public Case failingCase() { return this.c; }
+
+		public String toString() {
+
+			return this.check + " mismatch in " + this.engine + " after guess " + (this.step + 1) + " of " + this.c
+					+ "\n  expected: " + this.expected + "\n  actual:   " + this.actual;
+		}
+	}
+}
@@ -0,0 +1,301 @@
+package wordlejava;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ *
+ * A run of many solved games that can be stopped and resumed. The wordle of each game is drawn
+ * with its own Random seeded from the seed of the batch and the number of the game, so a game
+ * draws the same wordle no matter when or how often the batch was resumed.
+ *
+ * Progress can be saved to a checkpoint file holding the seed, the number of games completed,
+ * the tally of results so far and the time spent. Records of completed games are appended to a
+ * file next to the checkpoint and forced to disk before the checkpoint is replaced, and the
+ * checkpoint is written to a temporary file and renamed over the old one, so a crash at any
+ * point leaves the last checkpoint whole. Resuming drops records written after it.
+ *
+ * @author johnmatthew
+ *
+ */
+public class EvaluationBatch {
+
+	private static final String RECORDS_SUFFIX = ".records";
+
+	private final WordleLibrary library;
+	private final GuessStrategy strategy;
+	private final int iterations;
+	private final long seed;
+	private final int[] tally;
+	private final LinkedList<WordleRecord> records;
+	private int completed;
+	private long elapsedNanos;
+
+	/**
+	 *
+	 * Creates a batch that hasn't started.
+	 *
+	 * @param library the words to draw wordles from and solve with
+	 * @param strategy the logic used to pick each guess
+	 * @param iterations the number of games to solve
+	 * @param seed the seed the Random of every game is derived from
+	 */
+	public EvaluationBatch(WordleLibrary library, GuessStrategy strategy, int iterations, long seed) {
+
+		this.library = library;
+		this.strategy = strategy;
+		this.iterations = iterations;
+		this.seed = seed;
+		this.tally = new int[WordleGame.STANDARD_GUESSES + 1];
+		this.records = new LinkedList<>();
+	}
+
+	/**
+	 *
+	 * Resumes a batch from its checkpoint, reading back the records of the games it completed.
+	 *
+	 * @param checkpoint the checkpoint file
+	 * @param library the same words the batch was started with
+	 * @return the batch as it was at the checkpoint
+	 * @throws IOException if the checkpoint or records can't be read
+	 * @throws IllegalArgumentException if the checkpoint was made with a different library
+	 */
+	public static EvaluationBatch resume(Path checkpoint, WordleLibrary library) throws IOException {
+
+		Properties state = new Properties();
+		try (Reader in = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+			state.load(in);
+		}
+
+		String fingerprint = state.getProperty("libraryFingerprint");
+
+		if(Integer.parseInt(state.getProperty("wordleLength")) != library.wordleLength()
+				|| Integer.parseInt(state.getProperty("librarySize")) != library.size()
+				|| fingerprint == null || Long.parseUnsignedLong(fingerprint, 16) != library.fingerprint()) {
+			throw new IllegalArgumentException("checkpoint was made with a different library: " + checkpoint);
+		}
+
+		EvaluationBatch batch = new EvaluationBatch(library, GuessStrategy.valueOf(state.getProperty("strategy")),
+				Integer.parseInt(state.getProperty("iterations")), Long.parseLong(state.getProperty("seed")));
+
+		batch.completed = Integer.parseInt(state.getProperty("completed"));
+		batch.elapsedNanos = Long.parseLong(state.getProperty("elapsedNanos"));
+
+		String[] tally = state.getProperty("tally").split(",");
+		for(int i = 0; i < batch.tally.length; i++) {
+			batch.tally[i] = Integer.parseInt(tally[i].trim());
+		}
+
+		// records written after the checkpoint belong to games that will be solved again
+		Path recordsFile = recordsFile(checkpoint);
+		long recordsBytes = Long.parseLong(state.getProperty("recordsBytes"));
+
+		try (FileChannel channel = FileChannel.open(recordsFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			channel.truncate(recordsBytes);
+		}
+
+		try (BufferedReader in = Files.newBufferedReader(recordsFile, StandardCharsets.UTF_8)) {
+
+			String line;
+			while((line = in.readLine()) != null) {
+				batch.records.add(WordleRecord.parse(line));
+			}
+		}
+
+		if(batch.records.size() != batch.completed) {
+			throw new IllegalArgumentException("checkpoint has " + batch.completed + " games but " + batch.records.size() + " records: " + checkpoint);
+		}
+
+		return batch;
+	}
+
+	/**
+	 *
+	 * Solves the remaining games, saving a checkpoint after every checkpointEvery games and
+	 * when the batch is done.
+	 *
+	 * @param checkpoint the checkpoint file. null to keep progress only in memory
+	 * @param checkpointEvery the number of games between checkpoints
+	 * @throws IOException if a checkpoint can't be written
+	 */
+	public void run(Path checkpoint, int checkpointEvery) throws IOException {
+
+		Writer recordsOut = null;
+
+		// a new batch starts its records over, dropping any left by a run that never checkpointed
+		if(checkpoint != null) {
+			recordsOut = Files.newBufferedWriter(recordsFile(checkpoint), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+					this.completed == 0 ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND);
+		}
+
+		try {
+
+			long start = System.nanoTime();
+			int sinceCheckpoint = 0;
+
+			while(this.completed < this.iterations) {
+
+				WordleGame game = WordleGame.getRandomStandardGame(this.library, gameRandom(this.seed, this.completed));
+				WordleSolver solver = new WordleSolver(game, new LibraryView(this.library), this.strategy, this.library);
+				WordleRecord record = solver.solve();
+
+				this.records.add(record);
+				this.tally[record.getWinIndex()]++;
+				this.completed++;
+
+				if(recordsOut != null) {
+
+					recordsOut.write(record.toString());
+					recordsOut.write("\n");
+
+					if(++sinceCheckpoint >= checkpointEvery) {
+
+						this.elapsedNanos += System.nanoTime() - start;
+						start = System.nanoTime();
+						this.checkpoint(checkpoint, recordsOut);
+						sinceCheckpoint = 0;
+					}
+				}
+			}
+
+			this.elapsedNanos += System.nanoTime() - start;
+
+			if(recordsOut != null) {
+				this.checkpoint(checkpoint, recordsOut);
+			}
+
+		} finally {
+
+			if(recordsOut != null) {
+				recordsOut.close();
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Forces the records to disk and then replaces the checkpoint all at once.
+	 *
+	 */
+	private void checkpoint(Path checkpoint, Writer recordsOut) throws IOException {
+
+		recordsOut.flush();
+
+		long recordsBytes;
+		try (FileChannel channel = FileChannel.open(recordsFile(checkpoint), StandardOpenOption.WRITE)) {
+			channel.force(false);
+			recordsBytes = channel.size();
+		}
+
+		Properties state = new Properties();
+		state.setProperty("strategy", this.strategy.name());
+		state.setProperty("iterations", Integer.toString(this.iterations));
+		state.setProperty("seed", Long.toString(this.seed));
+		state.setProperty("completed", Integer.toString(this.completed));
+		state.setProperty("tally", Arrays.toString(this.tally).replaceAll("[\\[\\] ]", ""));
+		state.setProperty("elapsedNanos", Long.toString(this.elapsedNanos));
+		state.setProperty("recordsBytes", Long.toString(recordsBytes));
+		state.setProperty("wordleLength", Integer.toString(this.library.wordleLength()));
+		state.setProperty("librarySize", Integer.toString(this.library.size()));
+		state.setProperty("libraryFingerprint", Long.toHexString(this.library.fingerprint()));
+
+		Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+				Writer out = new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8)) {
+
+			state.store(out, "EvaluationBatch checkpoint");
+			out.flush();
+			channel.force(true);
+		}
+
+		Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 *
+	 * The file the records of a checkpoint are appended to.
+	 *
+	 * @param checkpoint the checkpoint file
+	 * @return the records file next to it
+	 */
+	public static Path recordsFile(Path checkpoint) { return checkpoint.resolveSibling(checkpoint.getFileName() + RECORDS_SUFFIX); }
+
+	/**
+	 *
+	 * Creates the Random of a game. Seeds are spread with the SplitMix64 finalizer so games
+	 * with neighboring numbers don't draw related wordles.
+	 *
+	 * @param seed the seed of the batch
+	 * @param game the number of the game counting from 0
+	 * @return the Random of the game
+	 */
+	static Random gameRandom(long seed, int game) {
+
+		long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+		return new Random(z ^ (z >>> 31));
+	}
+
+	/**
+	 *
+	 * The records of the completed games in the order they were solved.
+	 *
+	 * @return the records
+	 */
+	public LinkedList<WordleRecord> records() { return this.records; }
+
+	/**
+	 *
+	 * The number of games won on each guess, with losses counted at index 0.
+	 *
+	 * @return copy of the tally
+	 */
+	public int[] tally() { return this.tally.clone(); }
+
+	/**
+	 *
+	 * The number of games solved so far, including before the batch was resumed.
+	 *
+	 * @return int of the completed games
+	 */
+	public int completed() { return this.completed; }
+
+	/**
+	 *
+	 * The time spent solving so far, including before the batch was resumed.
+	 *
+	 * @return nanoseconds spent solving
+	 */
+	public long elapsedNanos() { return this.elapsedNanos; }
+
+	/**
+	 *
+	 * The logic used to pick each guess.
+	 *
+	 * @return the strategy of the batch
+	 */
+	public GuessStrategy strategy() { return this.strategy; }
+
+	/**
+	 *
+	 * The number of games the batch solves.
+	 *
+	 * @return int of the games
+	 */
+	public int iterations() { return this.iterations; }
+
+	/**
+	 *
+	 * The seed the Random of every game is derived from.
+	 *
+	 * @return the seed of the batch
+	 */
+	public long seed() { return this.seed; }
+}
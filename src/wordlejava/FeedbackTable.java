@@ -0,0 +1,67 @@
+package wordlejava;
+
+import java.io.IOException;
+import java.nio.file.*;
+
+/**
+ *
+ * Precomputed pattern of every word in a WordleLibrary guessed against every other word, as
+ * WordleGame.getPattern() would return it. Tables are only read once built so a single table
+ * can be shared by every game and thread using the same library.
+ *
+ * HeapFeedbackTable holds the patterns in arrays on the heap. MappedFeedbackTable holds them
+ * in a memory mapped file outside the heap that is filled as it is read and can be shared by
+ * every process on the machine.
+ *
+ * @author johnmatthew
+ *
+ */
+public interface FeedbackTable {
+
+	/**
+	 *
+	 * Gets the pattern of a guess against an answer.
+	 *
+	 * @param guess index of the guess in the library
+	 * @param answer index of the answer in the library
+	 * @return the pattern as WordleGame.getPattern() would return it
+	 */
+	int pattern(int guess, int answer);
+
+	/**
+	 *
+	 * The library whose words index the table.
+	 *
+	 * @return the library of the table
+	 */
+	WordleLibrary library();
+
+	/**
+	 *
+	 * Creates the table of a library. When run with -Dwordlejava.tables={directory} the table
+	 * is a MappedFeedbackTable in that directory, shared with every other process using the same
+	 * library. Otherwise, or if the file can't be opened, the table is built on the heap.
+	 *
+	 * @param library the words to guess against each other
+	 * @return the table of the library
+	 */
+	static FeedbackTable build(WordleLibrary library) {
+
+		String directory = System.getProperty("wordlejava.tables");
+
+		if(directory != null) {
+
+			try {
+
+				Path file = Paths.get(directory).resolve(MappedFeedbackTable.fileName(library));
+				return MappedFeedbackTable.open(file, library);
+
+			} catch (IOException | IllegalArgumentException e) {
+
+				e.printStackTrace();
+			}
+		}
+
+		return new HeapFeedbackTable(library);
+	}
+}
@@ -0,0 +1,202 @@
+package wordlejava;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ *
+ * CPU time and bytes allocated by the thread solving a game, for each guess WordleSolver picked
+ * and for the whole game. A guess counts the time to pick it and to refine the remaining words
+ * by its results. Guesses made by WordleSolver.replay() aren't measured.
+ *
+ * Measured by the counters of the thread from the ThreadMXBean, so only the work of the solving
+ * thread is counted and time the thread spent waiting isn't. Off unless the wordlejava.cost
+ * system property is true or setEnabled() is called. Measurements are -1 if the JVM doesn't
+ * support a counter.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class GameCost {
+
+	private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final com.sun.management.ThreadMXBean HOTSPOT_THREADS =
+			THREADS instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) THREADS : null;
+
+	private static volatile boolean enabled;
+
+	static {
+		setEnabled(Boolean.getBoolean("wordlejava.cost"));
+	}
+
+	private final long[] guessCpuNanos;
+	private final long[] guessAllocatedBytes;
+	private final long cpuNanos;
+	private final long allocatedBytes;
+
+	private GameCost(long[] guessCpuNanos, long[] guessAllocatedBytes, long cpuNanos, long allocatedBytes) {
+
+		this.guessCpuNanos = guessCpuNanos;
+		this.guessAllocatedBytes = guessAllocatedBytes;
+		this.cpuNanos = cpuNanos;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	/**
+	 *
+	 * Turns measuring on or off while running, turning on the counters of the JVM if needed.
+	 *
+	 * @param on true to measure
+	 */
+	public static void setEnabled(boolean on) {
+
+		if(on && THREADS.isThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+			THREADS.setThreadCpuTimeEnabled(true);
+		}
+
+		if(on && HOTSPOT_THREADS != null && HOTSPOT_THREADS.isThreadAllocatedMemorySupported()
+				&& !HOTSPOT_THREADS.isThreadAllocatedMemoryEnabled()) {
+			HOTSPOT_THREADS.setThreadAllocatedMemoryEnabled(true);
+		}
+
+		enabled = on;
+	}
+
+	/**
+	 *
+	 * Whether measuring is on.
+	 *
+	 * @return true if measuring
+	 */
+	public static boolean enabled() { return enabled; }
+
+	/**
+	 *
+	 * The CPU time the current thread has used so far.
+	 *
+	 * @return nanoseconds of CPU time. -1 if the JVM doesn't count it
+	 */
+	public static long cpuNanos() {
+
+		return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+	}
+
+	/**
+	 *
+	 * The bytes the current thread has allocated so far.
+	 *
+	 * @return the allocated bytes. -1 if the JVM doesn't count them
+	 */
+	public static long allocatedBytes() {
+
+		return HOTSPOT_THREADS != null && HOTSPOT_THREADS.isThreadAllocatedMemorySupported()
+				? HOTSPOT_THREADS.getCurrentThreadAllocatedBytes() : -1;
+	}
+
+	/**
+	 *
+	 * The number of guesses measured.
+	 *
+	 * @return int of the guesses
+	 */
+	public int guesses() { return this.guessCpuNanos.length; }
+
+	/**
+	 *
+	 * The CPU time of a guess.
+	 *
+	 * @param guess the guess counting from 0
+	 * @return nanoseconds of CPU time
+	 */
+	public long cpuNanos(int guess) { return this.guessCpuNanos[guess]; }
+
+	/**
+	 *
+	 * The bytes allocated for a guess.
+	 *
+	 * @param guess the guess counting from 0
+	 * @return the allocated bytes
+	 */
+	public long allocatedBytes(int guess) { return this.guessAllocatedBytes[guess]; }
+
+	/**
+	 *
+	 * The CPU time of the whole game, including work between guesses.
+	 *
+	 * @return nanoseconds of CPU time
+	 */
+	public long totalCpuNanos() { return this.cpuNanos; }
+
+	/**
+	 *
+	 * The bytes allocated for the whole game, including work between guesses.
+	 *
+	 * @return the allocated bytes
+	 */
+	public long totalAllocatedBytes() { return this.allocatedBytes; }
+
+	public String toString() {
+
+		long[] cpuMicros = Arrays.stream(this.guessCpuNanos).map(nanos -> nanos < 0 ? nanos : nanos / 1000).toArray();
+
+		return "cpu=" + (this.cpuNanos < 0 ? this.cpuNanos : this.cpuNanos / 1000) + "us " + Arrays.toString(cpuMicros)
+				+ " allocated=" + this.allocatedBytes + "B " + Arrays.toString(this.guessAllocatedBytes);
+	}
+
+	/**
+	 *
+	 * Measures a game on the thread solving it. Created when the game starts and marked after
+	 * every guess.
+	 *
+	 */
+	static final class Recorder {
+
+		private final long startCpu;
+		private final long startAllocated;
+		private long lastCpu;
+		private long lastAllocated;
+		private long[] guessCpuNanos;
+		private long[] guessAllocatedBytes;
+		private int guesses;
+
+		Recorder() {
+
+			this.startCpu = this.lastCpu = cpuNanos();
+			this.startAllocated = this.lastAllocated = allocatedBytes();
+			this.guessCpuNanos = new long[WordleGame.STANDARD_GUESSES];
+			this.guessAllocatedBytes = new long[WordleGame.STANDARD_GUESSES];
+		}
+
+		/**
+		 *
+		 * Ends the measurement of a guess and starts the next.
+		 *
+		 */
+		void guessDone() {
+
+			long cpu = cpuNanos();
+			long allocated = allocatedBytes();
+
+			if(this.guesses == this.guessCpuNanos.length) {
+				this.guessCpuNanos = Arrays.copyOf(this.guessCpuNanos, this.guesses * 2);
+				this.guessAllocatedBytes = Arrays.copyOf(this.guessAllocatedBytes, this.guesses * 2);
+			}
+
+			this.guessCpuNanos[this.guesses] = cpu < 0 ? -1 : cpu - this.lastCpu;
+			this.guessAllocatedBytes[this.guesses] = allocated < 0 ? -1 : allocated - this.lastAllocated;
+			this.guesses++;
+
+			this.lastCpu = cpu;
+			this.lastAllocated = allocated;
+		}
+
+		GameCost finish() {
+
+			long cpu = cpuNanos();
+			long allocated = allocatedBytes();
+
+			return new GameCost(Arrays.copyOf(this.guessCpuNanos, this.guesses), Arrays.copyOf(this.guessAllocatedBytes, this.guesses),
+					cpu < 0 ? -1 : cpu - this.startCpu, allocated < 0 ? -1 : allocated - this.startAllocated);
+		}
+	}
+}
@@ -0,0 +1,464 @@
+package wordlejava;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * Hosts many games of Wordle at once for players connected over a local socket. Each game is
+ * kept as a compact session holding the index of the wordle and the indexes of the guesses in
+ * a shared WordleLibrary instead of a full WordleGame, and results are the same ones
+ * WordleGame.getResult() gives. Games that haven't been played for a while are expired on a
+ * timer wheel.
+ *
+ * Libraries are taken from a DictionaryRegistry. Each session keeps the library it was started
+ * on, so reloading the words only changes the library of new games.
+ *
+ * Players send one command per line and get one line back starting with OK or ERR:
+ *
+ * 		NEW                  OK {session}
+ * 		GUESS {session} {word}  OK {results} PLAY|WIN|LOSE
+ * 		END {session}          OK {wordle}
+ * 		STATS                OK sessions=... guessesPerSec=... bytesPerSession=... version=...
+ * 		RELOAD               OK reloading
+ * 		QUIT
+ *
+ * Every connection is served on its own thread.
+ *
+ * @author johnmatthew
+ *
+ */
+public class GameHost {
+
+	public static long TICK_MILLIS = 1000;
+
+	private final DictionaryRegistry registry;
+	private final int wordleLength;
+	private final int numGuesses;
+	private final long idleTicks;
+	private final ConcurrentHashMap<Long, Session> sessions;
+	private final TimerWheel expirations;
+	private final AtomicLong nextSessionId;
+	private final LongAdder guessCount;
+	private final Random random;
+	private final ScheduledExecutorService ticker;
+	private final ExecutorService connections;
+	private ServerSocket serverSocket;
+	private long statsStartNanos;
+	private long statsStartGuesses;
+
+	/**
+	 *
+	 * Creates a host for games drawn from the answer pool of a library. Nothing is served
+	 * until start() is called but sessions can be created directly.
+	 *
+	 * @param library the words that can be guessed and drawn as wordles
+	 * @param numGuesses the number of guesses each player is allowed
+	 * @param idleSeconds seconds without a guess before a game is expired
+	 */
+	public GameHost(WordleLibrary library, int numGuesses, long idleSeconds) {
+
+		this(DictionaryRegistry.of(WordleDictionary.of(library)), library.wordleLength(), numGuesses, idleSeconds);
+	}
+
+	/**
+	 *
+	 * Creates a host for games drawn from the current dictionary of a registry. Nothing is
+	 * served until start() is called but sessions can be created directly.
+	 *
+	 * @param registry publishes the words that can be guessed and drawn as wordles
+	 * @param wordleLength the length of the wordles
+	 * @param numGuesses the number of guesses each player is allowed
+	 * @param idleSeconds seconds without a guess before a game is expired
+	 */
+	public GameHost(DictionaryRegistry registry, int wordleLength, int numGuesses, long idleSeconds) {
+
+		this.registry = registry;
+		this.wordleLength = wordleLength;
+		this.numGuesses = numGuesses;
+		this.idleTicks = Math.max(1, idleSeconds * 1000 / TICK_MILLIS);
+		this.sessions = new ConcurrentHashMap<>();
+		this.expirations = new TimerWheel(512);
+		this.nextSessionId = new AtomicLong(1);
+		this.guessCount = new LongAdder();
+		this.random = new Random();
+		this.ticker = Executors.newSingleThreadScheduledExecutor(SolverThreads.daemonThreads());
+		this.connections = SolverThreads.newPerTaskExecutor();
+		this.statsStartNanos = System.nanoTime();
+
+		this.ticker.scheduleAtFixedRate(this::expireIdleSessions, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 *
+	 * Starts a new game with a wordle drawn from the priors of the current library.
+	 *
+	 * @return the id of the new session
+	 * @throws IllegalArgumentException if the current dictionary has no words of the length
+	 */
+	public long newSession() {
+
+		WordleLibrary library = this.registry.current().library(this.wordleLength);
+		if(library == null) {
+			throw new IllegalArgumentException("no words of length " + this.wordleLength);
+		}
+
+		int wordle;
+		synchronized(this.random) {
+			wordle = library.sampleIndex(this.random);
+		}
+
+		long id = this.nextSessionId.getAndIncrement();
+		Session session = new Session(library, wordle, this.numGuesses, this.expirations.currentTick() + this.idleTicks);
+
+		this.sessions.put(id, session);
+		this.expirations.schedule(id, session.expiresTick);
+
+		return id;
+	}
+
+	/**
+	 *
+	 * Makes a guess in a session.
+	 *
+	 * @param id the id of the session
+	 * @param word the word guessed
+	 * @return the result digits of the guess followed by PLAY, WIN or LOSE
+	 * @throws IllegalArgumentException if the session doesn't exist, the game is over or the
+	 * 			word isn't in the library
+	 */
+	public String guess(long id, String word) {
+
+		Session session = this.session(id);
+		int guess = session.library.indexOf(word.toLowerCase());
+
+		if(guess == -1) {
+			throw new IllegalArgumentException("not in library: " + word);
+		}
+
+		synchronized(session) {
+
+			if(session.isOver()) {
+				throw new IllegalArgumentException("game is over: " + id);
+			}
+
+			session.guesses[session.guessCount++] = guess;
+			session.expiresTick = this.expirations.currentTick() + this.idleTicks;
+			this.guessCount.increment();
+
+			String wordle = session.library.word(session.wordle);
+			StringBuilder sb = new StringBuilder(wordle.length() + 5);
+			int pattern = WordleGame.getPattern(session.library.word(guess), wordle);
+
+			for(int i = 0; i < wordle.length(); i++) {
+				sb.append(pattern % 3);
+				pattern /= 3;
+			}
+
+			sb.append(session.isWon() ? " WIN" : session.isOver() ? " LOSE" : " PLAY");
+
+			return sb.toString();
+		}
+	}
+
+	/**
+	 *
+	 * Ends a session and reveals the wordle.
+	 *
+	 * @param id the id of the session
+	 * @return the wordle of the game
+	 * @throws IllegalArgumentException if the session doesn't exist
+	 */
+	public String end(long id) {
+
+		Session session = this.sessions.remove(id);
+
+		if(session == null) {
+			throw new IllegalArgumentException("no session: " + id);
+		}
+
+		return session.library.word(session.wordle);
+	}
+
+	private Session session(long id) {
+
+		Session session = this.sessions.get(id);
+
+		if(session == null) {
+			throw new IllegalArgumentException("no session: " + id);
+		}
+
+		return session;
+	}
+
+	/**
+	 *
+	 * Moves the timer wheel forward and removes sessions that haven't been played since
+	 * their deadline. Sessions played since being scheduled are scheduled again.
+	 *
+	 */
+	private void expireIdleSessions() {
+
+		this.expirations.tick(id -> {
+
+			Session session = this.sessions.get(id);
+			if(session == null) {
+				return false;
+			}
+
+			if(session.expiresTick > this.expirations.currentTick()) {
+				this.expirations.schedule(id, session.expiresTick);
+				return false;
+			}
+
+			return this.sessions.remove(id, session);
+		});
+	}
+
+	/**
+	 *
+	 * The number of games in progress.
+	 *
+	 * @return int of the number of sessions
+	 */
+	public int size() { return this.sessions.size(); }
+
+	/**
+	 *
+	 * Reports the number of sessions, the guesses per second since the last report, the
+	 * estimated memory of each session and the version of the dictionary.
+	 *
+	 * @return the report
+	 */
+	public synchronized String stats() {
+
+		long now = System.nanoTime();
+		long guesses = this.guessCount.sum();
+		double seconds = Math.max(1e-9, (now - this.statsStartNanos) / 1e9);
+		double guessesPerSec = (guesses - this.statsStartGuesses) / seconds;
+
+		this.statsStartNanos = now;
+		this.statsStartGuesses = guesses;
+
+		return String.format("sessions=%d guessesPerSec=%.0f bytesPerSession=%d version=%d",
+				this.size(), guessesPerSec, Session.estimatedBytes(this.numGuesses), this.registry.version());
+	}
+
+	/**
+	 *
+	 * Measures the heap used by each session by creating sessions and comparing the heap
+	 * before and after. Sessions created are ended before returning.
+	 *
+	 * @param n the number of sessions to create
+	 * @return the measured bytes of heap per session, including its map entry
+	 */
+	public long measureBytesPerSession(int n) {
+
+		Runtime runtime = Runtime.getRuntime();
+		long[] ids = new long[n];
+
+		System.gc();
+		long before = runtime.totalMemory() - runtime.freeMemory();
+
+		for(int i = 0; i < n; i++) {
+			ids[i] = this.newSession();
+		}
+
+		System.gc();
+		long after = runtime.totalMemory() - runtime.freeMemory();
+
+		for(long id : ids) {
+			this.sessions.remove(id);
+		}
+
+		return (after - before) / n;
+	}
+
+	/**
+	 *
+	 * Starts serving the line protocol on the loopback address. Each connection gets its own
+	 * thread.
+	 *
+	 * @param port the port to listen on. 0 picks a free port
+	 * @throws IOException if the port can't be bound
+	 */
+	public void start(int port) throws IOException {
+
+		this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+
+		Thread acceptor = new Thread(() -> {
+
+			while(!this.serverSocket.isClosed()) {
+
+				try {
+					Socket socket = this.serverSocket.accept();
+					this.connections.execute(() -> this.serve(socket));
+				} catch (IOException e) {
+					if(!this.serverSocket.isClosed()) {
+						e.printStackTrace();
+					}
+				}
+			}
+		}, "GameHost-acceptor");
+
+		acceptor.start();
+	}
+
+	/**
+	 *
+	 * Stops accepting connections and expiring sessions.
+	 *
+	 */
+	public void stop() {
+
+		try {
+			if(this.serverSocket != null) {
+				this.serverSocket.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		this.ticker.shutdown();
+		this.connections.shutdown();
+	}
+
+	/**
+	 *
+	 * The port the line protocol is served on.
+	 *
+	 * @return the bound port. -1 if not started
+	 */
+	public int port() { return this.serverSocket == null ? -1 : this.serverSocket.getLocalPort(); }
+
+	/**
+	 *
+	 * Reads commands from a connection until it sends QUIT or closes.
+	 *
+	 * @param socket the connection of a player
+	 */
+	private void serve(Socket socket) {
+
+		try (socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+
+			String line;
+			while((line = in.readLine()) != null) {
+
+				String[] command = line.trim().split("\\s+");
+				if(command[0].equalsIgnoreCase("QUIT")) {
+					break;
+				}
+
+				out.write(this.execute(command));
+				out.newLine();
+
+				// keep writing without flushing while more commands are already waiting
+				if(!in.ready()) {
+					out.flush();
+				}
+			}
+
+		} catch (IOException e) {
+			// connection closed by the player
+		}
+	}
+
+	/**
+	 *
+	 * Executes a single command of the line protocol.
+	 *
+	 * @param command the command split on whitespace
+	 * @return the line to send back
+	 */
+	String execute(String[] command) {
+
+		try {
+
+			switch(command[0].toUpperCase()) {
+
+				case "NEW":
+					return "OK " + this.newSession();
+				case "GUESS":
+					if(command.length != 3) {
+						return "ERR usage: GUESS {session} {word}";
+					}
+					return "OK " + this.guess(Long.parseLong(command[1]), command[2]);
+				case "END":
+					if(command.length != 2) {
+						return "ERR usage: END {session}";
+					}
+					return "OK " + this.end(Long.parseLong(command[1]));
+				case "STATS":
+					return "OK " + this.stats();
+				case "RELOAD":
+					this.registry.reload().whenComplete((dictionary, e) -> {
+						if(e != null) {
+							e.printStackTrace();
+						}
+					});
+					return "OK reloading";
+				default:
+					return "ERR unknown command: " + command[0];
+			}
+
+		} catch (IllegalArgumentException e) {
+
+			return "ERR " + e.getMessage();
+		}
+	}
+
+	/**
+	 *
+	 * State of one game. Words are stored as indexes into the library the game was started on
+	 * and the grid holds only the guesses made.
+	 *
+	 */
+	private static final class Session {
+
+		private final WordleLibrary library;
+		private final int wordle;
+		private final int[] guesses;
+		private int guessCount;
+		private volatile long expiresTick;
+
+		private Session(WordleLibrary library, int wordle, int numGuesses, long expiresTick) {
+
+			this.library = library;
+			this.wordle = wordle;
+			this.guesses = new int[numGuesses];
+			this.expiresTick = expiresTick;
+		}
+
+		private boolean isWon() { return this.guessCount > 0 && this.guesses[this.guessCount - 1] == this.wordle; }
+
+		private boolean isOver() { return this.isWon() || this.guessCount == this.guesses.length; }
+
+		/**
+		 *
+		 * Estimates the heap used by a session with compressed references: the object header
+		 * and fields, the guesses array and the map entry and boxed key holding it.
+		 *
+		 * @param numGuesses the number of guesses allowed
+		 * @return estimated bytes of a session
+		 */
+		private static long estimatedBytes(int numGuesses) {
+
+			long session = align(12 + 4 + 4 + 4 + 4 + 8);
+			long guesses = align(16 + 4L * numGuesses);
+			long entry = align(12 + 4 + 4 + 4 + 4) + align(12 + 8);
+
+			return session + guesses + entry;
+		}
+
+		private static long align(long bytes) { return (bytes + 7) & ~7L; }
+	}
+}
@@ -0,0 +1,155 @@
+package wordlejava;
+
+import java.util.*;
+
+/**
+ *
+ * The guesses made in a game so far and the results each one got, without knowing the wordle.
+ * Used to solve games that are played somewhere else. Written as comma separated guesses
+ * with the result digits after a colon, using the same digits as WordleGame.getResult():
+ *
+ * 		crane:02001,split:00210
+ *
+ * An empty string is a game with no guesses yet.
+ *
+ * @author johnmatthew
+ *
+ */
+public class GuessHistory {
+
+	private final List<String> guesses;
+	private final List<int[]> results;
+
+	/**
+	 *
+	 * Creates a history from matching lists of guesses and results.
+	 *
+	 * @param guesses the guesses in the order they were made
+	 * @param results the results of each guess
+	 */
+	public GuessHistory(List<String> guesses, List<int[]> results) {
+
+		if(guesses.size() != results.size()) {
+			throw new IllegalArgumentException("guesses and results don't match: " + guesses.size() + " != " + results.size());
+		}
+
+		this.guesses = Collections.unmodifiableList(new ArrayList<>(guesses));
+		this.results = Collections.unmodifiableList(new ArrayList<>(results));
+	}
+
+	/**
+	 *
+	 * Parses a history written as guess:results pairs separated by commas.
+	 *
+	 * @param history the written history
+	 * @param wordleLength the number of letters every guess must have
+	 * @return the parsed history
+	 * @throws IllegalArgumentException if a guess or its results are not valid
+	 */
+	public static GuessHistory parse(String history, int wordleLength) {
+
+		List<String> guesses = new ArrayList<>();
+		List<int[]> results = new ArrayList<>();
+
+		if(history == null || history.isBlank()) {
+			return new GuessHistory(guesses, results);
+		}
+
+		for(String entry : history.trim().split(",")) {
+
+			int colon = entry.indexOf(':');
+			if(colon == -1) {
+				throw new IllegalArgumentException("missing results: " + entry);
+			}
+
+			String guess = entry.substring(0, colon).trim().toLowerCase();
+			String digits = entry.substring(colon + 1).trim();
+
+			if(!WordleGame.isValidWordleGuess(guess, wordleLength)) {
+				throw new IllegalArgumentException("invalid guess: " + guess);
+			}
+
+			if(digits.length() != wordleLength) {
+				throw new IllegalArgumentException("invalid results for " + guess + ": " + digits);
+			}
+
+			int[] result = new int[wordleLength];
+			for(int i = 0; i < wordleLength; i++) {
+
+				result[i] = digits.charAt(i) - '0';
+				if(result[i] < 0 || result[i] > 2) {
+					throw new IllegalArgumentException("invalid results for " + guess + ": " + digits);
+				}
+			}
+
+			guesses.add(guess);
+			results.add(result);
+		}
+
+		return new GuessHistory(guesses, results);
+	}
+
+	/**
+	 *
+	 * Refines the library of a GuessManager by every guess in the history in order.
+	 *
+	 * @param guessManager the GuessManager to refine
+	 */
+	public void applyTo(GuessManager guessManager) {
+
+		for(int i = 0; i < this.guesses.size(); i++) {
+
+			guessManager.refineLibrary(this.guesses.get(i).toCharArray(), this.results.get(i));
+		}
+	}
+
+	/**
+	 *
+	 * The number of guesses made.
+	 *
+	 * @return int of the number of guesses
+	 */
+	public int size() { return this.guesses.size(); }
+
+	/**
+	 *
+	 * Gets a guess in the history.
+	 *
+	 * @param index index of the guess beginning with 0
+	 * @return the guess
+	 */
+	public String guess(int index) { return this.guesses.get(index); }
+
+	/**
+	 *
+	 * Gets the results of a guess in the history.
+	 *
+	 * @param index index of the guess beginning with 0
+	 * @return copy of the results of the guess
+	 */
+	public int[] results(int index) { return this.results.get(index).clone(); }
+
+	/**
+	 *
+	 * Returns the history in the form it is parsed from.
+	 *
+	 */
+	public String toString() {
+
+		StringBuilder sb = new StringBuilder();
+
+		for(int i = 0; i < this.guesses.size(); i++) {
+
+			if(i > 0) {
+				sb.append(',');
+			}
+
+			sb.append(this.guesses.get(i)).append(':');
+			for(int r : this.results.get(i)) {
+				sb.append(r);
+			}
+		}
+
+		return sb.toString();
+	}
+}
@@ -2,7 +2,10 @@ package wordlejava;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  *
@@ -19,6 +22,10 @@ public class GuessManager {
 
 	public static String ALPHABET_STR = "abcdefghijklmnopqrstuvwxyz";
 
+	// longer words are scored by sorting their patterns instead of counting into an array of
+	// every pattern, which takes 3^length cells. 3^10, the longest a FeedbackTable holds
+	private static final int MAX_DENSE_PATTERNS = 59049;
+
 	private List<String> library;
 	private int wordleLength;
 	private char[] garbage;
@@ -28,6 +35,14 @@ public class GuessManager {
 	private char[] wordleIncludes;
 	private int wordleIncludesIndex;
 	int[] charCounts;
+	private GuessStrategy strategy;
+	private WordleLibrary priors;
+	private FeedbackTable feedbackTable;
+	private boolean scoreAllWords;
+	private boolean pruneGuesses = true;
+	private GuessPruner.Pruning lastPruning;
+	private double[] patternWeights;
+	private int[] patternCounts;
 
 
 	/**
@@ -51,8 +66,22 @@ public class GuessManager {
 		this.wordleIncludes = new char[wordleLength];
 		this.wordleIncludesIndex = 0;
 		this.charCounts = new int[26];
+		this.strategy = GuessStrategy.HIGHEST_IMPACT;
+
+	}
 
+	/**
+	 *
+	 * Constructor to begin guessing from every word of a shared WordleLibrary, weighted by its
+	 * priors. The library is viewed instead of copied so creating a GuessManager takes constant
+	 * time and the library is never modified.
+	 *
+	 * @param library the full library to begin with
+	 */
+	public GuessManager(WordleLibrary library) {
 
+		this(library.wordleLength(), new LibraryView(library));
+		this.priors = library;
 	}
 
 	/**
@@ -66,82 +95,238 @@ public class GuessManager {
 	 */
 	public static LinkedList<String> importWordsToLibrary(int wordleLength) {
 
-//		System.out.println("IMPORTING FROM FILE"); // for testing
+		WordleLibrary library = importLibrary(wordleLength);
 
-		LinkedList<String> library = new LinkedList<>();
+		return library == null ? null : new LinkedList<>(library.words());
+	}
 
-		try {
-			String path = System.getProperty("user.dir");
-			File file = new File(path + "/src/wordlejava/ANC-token-count.txt");
-			Scanner sc = new Scanner(file);
+	/**
+	 *
+	 * Method that pulls in word frequency data from the American National Corpus. This library is
+	 * used so the algorithm can use word frequency as a metric to determine guesses. If the 
+	 * connection is bad or is unable to pull data, importWordsToLibary() is called in order to continue
+	 * function by pulling data from a local file.
+	 *
+	 * Static in nature in order to ensure library consistency throughout all package objects.
+	 *
+	 * @param wordleLength length of the wordle used to create library without unnecessarily importing 
+	 * 			words of the incorrect length
+	 * @return library of appropriately sized words
+	 */
+	public static LinkedList<String> importWordsToLibraryFromWeb(int wordleLength) {
 
-			while(sc.hasNext()) {
+		WordleLibrary library = importLibraryFromWeb(wordleLength);
 
-				String word = sc.nextLine();
-				word = word.substring(0, word.indexOf("\t"));
-//				System.out.println(word); // for testing
-				if(WordleGame.isValidWordleGuess(word, wordleLength)) {
-					library.add(word);
-				}
-			}
+		return library == null ? null : new LinkedList<>(library.words());
+	}
 
-		} catch (FileNotFoundException e) {
+	/**
+	 *
+	 * Creates a WordleLibrary, keeping the token counts, from a local file of words. Called by
+	 * importLibraryFromWeb() in the case that an exception is thrown.
+	 *
+	 * @param wordleLength length of the wordle used to create library without unnecessarily importing 
+	 * 			words of the incorrect length
+	 * @return library of appropriately sized words sorted by frequency. null if the file can't be read
+	 */
+	public static WordleLibrary importLibrary(int wordleLength) {
+
+//		System.out.println("IMPORTING FROM FILE"); // for testing
+
+		String path = System.getProperty("user.dir");
+		File file = new File(path + "/src/wordlejava/ANC-token-count.txt");
+
+		try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+
+			return readLibrary(in, wordleLength, file.getPath());
 
-			library = null;
+		} catch (IOException e) {
 
 			e.printStackTrace();
 
+			return null;
 		}
-
-		return library;
 	}
 
 	/**
 	 *
-	 * Method that pulls in word frequency data from the American National Corpus. This library is
-	 * used so the algorithm can use word frequency as a metric to determine guesses. If the 
-	 * connection is bad or is unable to pull data, importWordsToLibary() is called in order to continue
-	 * function by pulling data from a local file.
-	 *
-	 * Static in nature in order to ensure library consistency throughout all package objects.
+	 * Creates a WordleLibrary, keeping the token counts, from the American National Corpus
+	 * frequency data. If the connection is bad or is unable to pull data, importLibrary() is
+	 * called in order to continue function by pulling data from a local file.
 	 *
 	 * @param wordleLength length of the wordle used to create library without unnecessarily importing 
 	 * 			words of the incorrect length
-	 * @return library of appropriately sized words
+	 * @return library of appropriately sized words sorted by frequency
 	 */
-	public static LinkedList<String> importWordsToLibraryFromWeb(int wordleLength) {
+	public static WordleLibrary importLibraryFromWeb(int wordleLength) {
 
 //		System.out.println("IMPORTING FROM WEB"); // for testing
 
-		LinkedList<String> library = new LinkedList<>();
-
 		try {
 
 			URL frequencyData = new URL("https://www.anc.org/SecondRelease/data/ANC-token-count.txt");
-			BufferedReader in = new BufferedReader(new InputStreamReader(frequencyData.openStream()));
 
-			String word;
-			while (((word = in.readLine()) != null) && (word.contains("\t"))) {
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(frequencyData.openStream()))) {
+
+				return readLibrary(in, wordleLength, frequencyData.toString());
+			}
+
+		} catch(Exception e) {
+
+			e.printStackTrace();
+
+			return importLibrary(wordleLength);
+		}
+	}
+
+	/**
+	 *
+	 * Loads the library of a SolverSnapshot instead of reading the corpus. If there is no
+	 * snapshot, it can't be loaded or it is of another length, importLibraryFromWeb() is called
+	 * in order to continue function by reading the corpus.
+	 *
+	 * @param file path of the snapshot. null to read the corpus
+	 * @param wordleLength length of the wordle
+	 * @return library of appropriately sized words sorted by frequency
+	 */
+	public static WordleLibrary importLibraryFromSnapshot(String file, int wordleLength) {
+
+		if(file != null) {
+
+			try {
 
-				word = word.substring(0, word.indexOf("\t"));
-				if(WordleGame.isValidWordleGuess(word, wordleLength)) {
-//	        		System.out.println(word); // for testing
-					library.add(word);
+				WordleLibrary library = SolverSnapshot.load(Paths.get(file)).library();
+				if(library.wordleLength() == wordleLength) {
+					return library;
 				}
+
+			} catch (IOException | IllegalArgumentException e) {
+
+				e.printStackTrace();
+			}
+		}
+
+		return importLibraryFromWeb(wordleLength);
+	}
+
+	/**
+	 *
+	 * Creates a WordleDictionary of every word length from a local file of words, reading the
+	 * file once. Called by importDictionaryFromWeb() in the case that an exception is thrown.
+	 *
+	 * @return dictionary of the words of every length. null if the file can't be read
+	 */
+	public static WordleDictionary importDictionary() {
+
+		String path = System.getProperty("user.dir");
+		File file = new File(path + "/src/wordlejava/ANC-token-count.txt");
+
+		try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+
+			return WordleDictionary.read(in, file.getPath());
+
+		} catch (IOException e) {
+
+			e.printStackTrace();
+
+			return null;
+		}
+	}
+
+	/**
+	 *
+	 * Creates a WordleDictionary of every word length from the American National Corpus
+	 * frequency data, reading the data once. If the connection is bad or is unable to pull
+	 * data, importDictionary() is called in order to continue function by pulling data from a
+	 * local file.
+	 *
+	 * @return dictionary of the words of every length
+	 */
+	public static WordleDictionary importDictionaryFromWeb() {
+
+		try {
+
+			URL frequencyData = new URL("https://www.anc.org/SecondRelease/data/ANC-token-count.txt");
+
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(frequencyData.openStream()))) {
+
+				return WordleDictionary.read(in, frequencyData.toString());
 			}
-			in.close();
 
 		} catch(Exception e) {
 
 			e.printStackTrace();
 
-			library = importWordsToLibrary(wordleLength);
+			return importDictionary();
+		}
+	}
+
+	/**
+	 *
+	 * Reads lines of tab separated frequency data until a line without a tab. The word is
+	 * the first field and the token count is the last field. Counts of words that appear
+	 * more than once are added together.
+	 *
+	 * Records a SolverEvents.LibraryLoad event.
+	 *
+	 * @param in reader of the frequency data
+	 * @param wordleLength length of the words to keep
+	 * @param source where the data is read from
+	 * @return library of the words of the correct length
+	 * @throws IOException if the data can't be read
+	 */
+	static WordleLibrary readLibrary(BufferedReader in, int wordleLength, String source) throws IOException {
+
+		SolverEvents.LibraryLoad event = new SolverEvents.LibraryLoad();
+		event.begin();
+
+		LinkedHashMap<String, Long> wordCounts = new LinkedHashMap<>();
+
+		String line;
+		while (((line = in.readLine()) != null) && (line.contains("\t"))) {
+
+			String word = line.substring(0, line.indexOf("\t"));
+			if(WordleGame.isValidWordleGuess(word, wordleLength)) {
+//				System.out.println(word); // for testing
+				wordCounts.merge(word.toLowerCase(), parseCount(line), Long::sum);
+			}
+		}
+
+//		System.out.println("IMPORTED LIBRARY SIZE: " + wordCounts.size()); // for testing
+		WordleLibrary library = new WordleLibrary(wordleLength, wordCounts, WordleGame.STANDARD_ANSWERS);
+
+		event.end();
+
+		if(event.shouldCommit()) {
+			event.source = source;
+			event.wordleLength = wordleLength;
+			event.words = library.size();
+			event.commit();
+		}
+
+		if(SolverEvents.countersEnabled()) {
+			SolverEvents.LIBRARIES_LOADED.increment();
 		}
 
-//		System.out.println("IMPORTED LIBRARY FROM WEB SIZE: " + library.size()); // for testing
 		return library;
 	}
 
+	/**
+	 *
+	 * Parses the token count in the last field of a line of frequency data.
+	 *
+	 * @param line tab separated line with the word first
+	 * @return the token count. 1 if the last field isn't a number
+	 */
+	private static long parseCount(String line) {
+
+		try {
+			return Long.parseLong(line.substring(line.lastIndexOf("\t") + 1).trim());
+		} catch (NumberFormatException e) {
+			return 1;
+		}
+	}
+
 	/**
 	 *
 	 * Loops through all of the letter of a guess and calls the appropriate method based on the
@@ -152,6 +337,11 @@ public class GuessManager {
 	 */
 	public void refineLibrary(char[] guess, int[] results) {
 
+		SolverEvents.Refine event = new SolverEvents.Refine();
+		event.begin();
+		long start = SolverMetrics.enabled() ? System.nanoTime() : 0;
+		int before = this.library.size();
+
 		for(int i = 0; i < guess.length; i++) {
 
 			switch(results[i]) {
@@ -169,6 +359,24 @@ public class GuessManager {
 			}
 
 		}
+
+		event.end();
+
+		if(event.shouldCommit()) {
+			event.guess = new String(guess);
+			event.before = before;
+			event.after = this.library.size();
+			event.commit();
+		}
+
+		if(SolverEvents.countersEnabled()) {
+			SolverEvents.REFINES.increment();
+			SolverEvents.WORDS_REFINED.add(before - this.library.size());
+		}
+
+		if(SolverMetrics.enabled()) {
+			SolverMetrics.record(SolverMetrics.Operation.REFINE, this.strategy, before, System.nanoTime() - start);
+		}
 	}
 
 	/**
@@ -184,14 +392,12 @@ public class GuessManager {
 
 //		System.out.println(c + ": CORRECT"); // for testing
 
-		for(int i = 0; i < this.library.size(); i++) {
-
-			// if word doesn't have c at specific index
-			if(this.library.get(i).charAt(index) != c) {
-				this.library.remove(i);
-				i--;
-
-			}
+		// if word doesn't have c at specific index
+		LibraryView view = this.viewForLetter(c);
+		if(view != null) {
+			view.retain(view.library().wordsWithLetterAt(c, index));
+		} else {
+			this.library.removeIf(word -> word.charAt(index) != c);
 		}
 		this.wordleKnown[index] = c;
 		this.lettersKnown++;
@@ -211,15 +417,13 @@ public class GuessManager {
 
 //		System.out.println(c + ": WRONG INDEX"); // for testing
 
-		for(int i = 0; i < this.library.size(); i++) {
-
-			// if word has c in the same index
-			if((this.library.get(i).indexOf(c) == index) ||
-					(this.library.get(i).indexOf(c) == -1)) {
-				this.library.remove(i);
-				i--;
-
-			}
+		// if word has c in the same index
+		LibraryView view = this.viewForLetter(c);
+		if(view != null) {
+			view.retain(view.library().wordsWithLetter(c));
+			view.removeAll(view.library().wordsWithFirstLetterAt(c, index));
+		} else {
+			this.library.removeIf(word -> (word.indexOf(c) == index) || (word.indexOf(c) == -1));
 		}
 
 		// check if c is already in wordleIncludes
@@ -248,17 +452,49 @@ public class GuessManager {
 		}
 
 		// if word includes c
-		for(int i = 0; i < this.library.size(); i++) {
-
-			if(this.library.get(i).indexOf(c) != -1) {
-				this.library.remove(i);
-				i--;
-			}
+		LibraryView view = this.viewForLetter(c);
+		if(view != null) {
+			view.removeAll(view.library().wordsWithLetter(c));
+		} else {
+			this.library.removeIf(word -> word.indexOf(c) != -1);
 		}
 		this.garbage[this.garbageIndex] = c;
 		this.garbageIndex++;
 	}
 
+	/**
+	 *
+	 * Gets the library as a LibraryView if it can be refined by a letter with the letter
+	 * sets of its WordleLibrary instead of reading every word.
+	 *
+	 * @param c the letter to refine by
+	 * @return the view of the library. null if the library isn't a view or c isn't a lower case letter
+	 */
+	private LibraryView viewForLetter(char c) {
+
+		if(!(this.library instanceof LibraryView) || c < 'a' || c > 'z') {
+			return null;
+		}
+
+		return (LibraryView) this.library;
+	}
+
+	/**
+	 *
+	 * The remaining words as a set of indexes in the WordleLibrary, usable as the key of a
+	 * cache of results that only depend on the remaining words.
+	 *
+	 * @return the set of remaining words. null if the library isn't a LibraryView
+	 */
+	public CandidateSet candidates() {
+
+		if(!(this.library instanceof LibraryView)) {
+			return null;
+		}
+
+		return ((LibraryView) this.library).candidates();
+	}
+
 	/**
 	 *
 	 * Used to return the next word to be guessed. This method is where a change
@@ -266,17 +502,597 @@ public class GuessManager {
 	 *
 	 * @return the next word to be guessed based on the included logic
 	 */
-	public String getNextWord() {
+	public String getNextWord() { return this.getNextWord(Long.MAX_VALUE, TimeUnit.NANOSECONDS, null); }
+
+	/**
+	 *
+	 * Picks the next word with the strategy, scoring words until the deadline.
+	 *
+	 * @param deadline System.nanoTime() to stop scoring at. Long.MAX_VALUE to score every word
+	 * @param cancelled set by another thread to stop scoring early. May be null
+	 * @return the next word to be guessed
+	 */
+	private String pickNextWord(long deadline, AtomicBoolean cancelled) {
 
-		LinkedList<String> copy = new LinkedList<>();
-		copy.addAll(this.library);
+		switch(this.strategy) {
 
-		String highestImpactWord = this.getHighestImpactWord(0, copy);
+			case ENTROPY:
+			case EXPECTED_GUESSES:
+				// the remaining words are read, weighted and ordered before scoring can stop, so
+				// a budget already spent gets the first remaining word without any of that
+				if(expired(deadline, cancelled) || this.library.isEmpty()) {
+					return this.library.isEmpty() ? null : this.library.get(0);
+				}
+				String[] candidates = this.library.toArray(new String[0]);
+				if(this.scoreAllWords && this.priors != null && candidates.length > 0) {
+					return this.getBestScoredGuess(candidates, deadline, cancelled);
+				}
+				return this.getBestScoredWord(candidates, deadline, cancelled);
+		}
+
+		// count letters in library
+		int[] libraryCounts = new int[26];
+		this.countChars(this.library, libraryCounts);
+
+		String highestImpactWord = this.getHighestImpactWord(0, this.library, libraryCounts);
 //		System.out.println("highestImpactWord: " + highestImpactWord + "\n"); // for testing
 
 		return highestImpactWord;
 	}
 
+	/**
+	 *
+	 * Used to return the next word to be guessed within a time budget. Scoring strategies
+	 * score the remaining words best-first, beginning with the words most likely to be good
+	 * guesses, and return the best word scored so far when the budget runs out, the flag is
+	 * set or the thread is interrupted. HIGHEST_IMPACT doesn't score words and ignores the
+	 * budget. Records a SolverEvents.NextGuess event.
+	 *
+	 * Reading, weighting and ordering the remaining words, and pruning them when every word is
+	 * scored, can't be stopped partway, so they are only skipped when the budget has run out
+	 * before they start, in which case the first remaining word is returned. The time they take
+	 * grows with the remaining words and isn't bounded by the budget.
+	 *
+	 * With enough time the result is the same as getNextWord().
+	 *
+	 * @param timeBudget the time allowed to pick the word
+	 * @param unit the unit of the time budget
+	 * @param cancelled set by another thread to stop scoring early. May be null
+	 * @return the best word found before the budget ran out
+	 */
+	public String getNextWord(long timeBudget, TimeUnit unit, AtomicBoolean cancelled) {
+
+		SolverEvents.NextGuess event = new SolverEvents.NextGuess();
+		event.begin();
+		long start = System.nanoTime();
+
+		long budgetNanos = unit.toNanos(timeBudget);
+		long deadline = budgetNanos == Long.MAX_VALUE ? Long.MAX_VALUE : start + budgetNanos;
+
+		int candidates = this.library.size();
+		String nextWord = this.pickNextWord(deadline, cancelled);
+
+		event.end();
+
+		if(event.shouldCommit()) {
+			event.strategy = this.strategy.name();
+			event.candidates = candidates;
+			event.guess = nextWord;
+			event.commit();
+		}
+
+		if(SolverEvents.countersEnabled()) {
+			SolverEvents.NEXT_GUESSES.increment();
+			SolverEvents.NEXT_GUESS_NANOS.add(System.nanoTime() - start);
+		}
+
+		if(SolverMetrics.enabled()) {
+			SolverMetrics.record(SolverMetrics.Operation.NEXT_GUESS, this.strategy, candidates, System.nanoTime() - start);
+		}
+
+		return nextWord;
+	}
+
+	/**
+	 *
+	 * Used to return the next word to be guessed within a time budget.
+	 *
+	 * @param timeBudget the time allowed to pick the word
+	 * @param unit the unit of the time budget
+	 * @return the best word found before the budget ran out
+	 */
+	public String getNextWord(long timeBudget, TimeUnit unit) { return this.getNextWord(timeBudget, unit, null); }
+
+	/**
+	 *
+	 * Whether picking a word has to stop: the deadline passed, the flag is set or the thread
+	 * is interrupted.
+	 *
+	 * @param deadline System.nanoTime() to stop at. Long.MAX_VALUE for no deadline
+	 * @param cancelled set by another thread to stop early. May be null
+	 * @return true to stop
+	 */
+	private static boolean expired(long deadline, AtomicBoolean cancelled) {
+
+		if(deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+			return true;
+		}
+
+		return (cancelled != null && cancelled.get()) || Thread.currentThread().isInterrupted();
+	}
+
+	/**
+	 *
+	 * Scores the remaining words as guesses using the strategy, best-first, until the deadline
+	 * and returns the best one. Ties go to the word earliest in the library, which is the most
+	 * frequent. If nothing could be scored the first word in best-first order is returned.
+	 *
+	 * @param candidates the remaining possible words
+	 * @param deadline System.nanoTime() to stop scoring at. Long.MAX_VALUE to score every word
+	 * @param cancelled set by another thread to stop scoring early. May be null
+	 * @return the word with the best score
+	 */
+	private String getBestScoredWord(String[] candidates, long deadline, AtomicBoolean cancelled) {
+
+		double[] weights = this.getCandidateWeights(candidates);
+		int[] tableIndexes = this.getTableIndexes(candidates);
+
+		if(expired(deadline, cancelled)) {
+			return candidates[0];
+		}
+
+		int[] order = this.getBestFirstOrder(candidates, null, candidates, weights);
+		int bestIndex = order[0];
+		double bestScore = Double.NEGATIVE_INFINITY;
+
+		for(int i : order) {
+
+			if(expired(deadline, cancelled)) {
+				break;
+			}
+
+			int guessIndex = tableIndexes == null ? -1 : tableIndexes[i];
+			double score = this.scoreGuess(candidates[i], guessIndex, candidates, tableIndexes, weights);
+
+			if(score > bestScore || (score == bestScore && i < bestIndex)) {
+				bestScore = score;
+				bestIndex = i;
+			}
+		}
+
+		return candidates[bestIndex];
+	}
+
+	/**
+	 *
+	 * Scores every word of the priors as a guess against the remaining words, best-first, until
+	 * the deadline and returns the best one, the same way getBestScoredWord() scores the remaining
+	 * words. Ties go to a remaining word, then to the word earliest in the library. Unless turned
+	 * off, GuessPruner first collapses guesses that would get the same score and drops guesses
+	 * that can't be the best, which doesn't change the word picked when every guess is scored.
+	 *
+	 * @param candidates the remaining possible words
+	 * @param deadline System.nanoTime() to stop scoring at. Long.MAX_VALUE to score every word
+	 * @param cancelled set by another thread to stop scoring early. May be null
+	 * @return the word with the best score
+	 */
+	private String getBestScoredGuess(String[] candidates, long deadline, AtomicBoolean cancelled) {
+
+		GuessPruner pruner = this.priors.guessPruner();
+		String[] guesses = pruner.guesses();
+		double[] weights = this.getCandidateWeights(candidates);
+		int[] tableIndexes = this.getTableIndexes(candidates);
+
+		boolean[] isCandidate = new boolean[guesses.length];
+		double[] guessWeights = new double[guesses.length];
+
+		for(int i = 0; i < candidates.length; i++) {
+
+			int index = this.priors.indexOf(candidates[i]);
+			if(index != -1) {
+				isCandidate[index] = true;
+				guessWeights[index] = weights[i];
+			}
+		}
+
+		if(expired(deadline, cancelled)) {
+			return candidates[0];
+		}
+
+		int[] scored = null;
+		if(this.pruneGuesses) {
+			this.lastPruning = pruner.prune(isCandidate, candidates, weights);
+			scored = this.lastPruning.kept();
+		}
+
+		boolean tableGuesses = tableIndexes != null && this.feedbackTable.library() == this.priors;
+
+		if(expired(deadline, cancelled)) {
+			return candidates[0];
+		}
+
+		int[] order = this.getBestFirstOrder(guesses, scored, candidates, guessWeights);
+		int bestIndex = order[0];
+		double bestScore = Double.NEGATIVE_INFINITY;
+
+		for(int i : order) {
+
+			if(expired(deadline, cancelled)) {
+				break;
+			}
+
+			int guessIndex = tableIndexes == null ? -1 : tableGuesses ? i : this.feedbackTable.library().indexOf(guesses[i]);
+			double score = this.scoreGuess(guesses[i], guessIndex, candidates, tableIndexes, weights);
+
+			// a remaining word could be the wordle, so it wins a tie with one that can't
+			if(score > bestScore || (score == bestScore && (isCandidate[i] != isCandidate[bestIndex] ? isCandidate[i] : i < bestIndex))) {
+				bestScore = score;
+				bestIndex = i;
+			}
+		}
+
+		return guesses[bestIndex];
+	}
+
+	/**
+	 *
+	 * Orders guesses by a cheap estimate of how good they are. A letter is worth the number of
+	 * remaining words it would rule out or in, whichever is fewer, so letters in about half of
+	 * the words are worth the most. Each word is worth its distinct letters, and for
+	 * EXPECTED_GUESSES also its chance of being the wordle.
+	 *
+	 * @param guesses the words that may be guessed
+	 * @param indexes the indexes of the guesses to order. null for every guess
+	 * @param candidates the remaining possible words
+	 * @param weights the weight of each guess
+	 * @return indexes of the guesses from best to worst estimate
+	 */
+	private int[] getBestFirstOrder(String[] guesses, int[] indexes, String[] candidates, double[] weights) {
+
+		int[] wordsWithLetter = new int[26];
+
+		for(String candidate : candidates) {
+
+			int seen = 0;
+			for(int j = 0; j < candidate.length(); j++) {
+
+				int letter = candidate.charAt(j) - 'a';
+				if((seen & (1 << letter)) == 0) {
+					seen |= 1 << letter;
+					wordsWithLetter[letter]++;
+				}
+			}
+		}
+
+		double[] estimates = new double[guesses.length];
+		Integer[] order = new Integer[indexes == null ? guesses.length : indexes.length];
+
+		for(int n = 0; n < order.length; n++) {
+
+			int i = indexes == null ? n : indexes[n];
+			int seen = 0;
+			for(int j = 0; j < guesses[i].length(); j++) {
+
+				int letter = guesses[i].charAt(j) - 'a';
+				if((seen & (1 << letter)) == 0) {
+					seen |= 1 << letter;
+					estimates[i] += Math.min(wordsWithLetter[letter], candidates.length - wordsWithLetter[letter]);
+				}
+			}
+
+			if(this.strategy == GuessStrategy.EXPECTED_GUESSES) {
+				estimates[i] += weights[i] * candidates.length;
+			}
+
+			order[n] = i;
+		}
+
+		Arrays.sort(order, (a, b) -> Double.compare(estimates[b], estimates[a]));
+
+		int[] sorted = new int[order.length];
+		for(int i = 0; i < order.length; i++) {
+			sorted[i] = order[i];
+		}
+
+		return sorted;
+	}
+
+	/**
+	 *
+	 * Looks up the index of each remaining word in the feedback table.
+	 *
+	 * @param candidates the remaining possible words
+	 * @return index of each candidate in the table. null if there is no table or a
+	 * 			candidate isn't in it
+	 */
+	private int[] getTableIndexes(String[] candidates) {
+
+		if(this.feedbackTable == null) {
+			return null;
+		}
+
+		int[] indexes = new int[candidates.length];
+
+		// views of the table's library already know the index of each word
+		if(this.library instanceof LibraryView && ((LibraryView) this.library).library() == this.feedbackTable.library()) {
+
+			LibraryView view = (LibraryView) this.library;
+			for(int i = 0; i < candidates.length; i++) {
+				indexes[i] = view.index(i);
+			}
+
+			return indexes;
+		}
+
+		for(int i = 0; i < candidates.length; i++) {
+
+			indexes[i] = this.feedbackTable.library().indexOf(candidates[i]);
+			if(indexes[i] == -1) {
+				return null;
+			}
+		}
+
+		return indexes;
+	}
+
+	/**
+	 *
+	 * Weighs each remaining word by the likelihood it is the wordle. Uses the priors when
+	 * they are set and at least one remaining word is an answer, otherwise every word is
+	 * weighted the same. Weights add up to 1.
+	 *
+	 * @param candidates the remaining possible words
+	 * @return the weight of each candidate in the same order
+	 */
+	private double[] getCandidateWeights(String[] candidates) {
+
+		double[] weights = new double[candidates.length];
+		double total = 0;
+
+		if(this.priors != null) {
+
+			for(int i = 0; i < candidates.length; i++) {
+				weights[i] = this.priors.prior(candidates[i]);
+				total += weights[i];
+			}
+		}
+
+		if(total == 0) {
+			Arrays.fill(weights, 1);
+			total = candidates.length;
+		}
+
+		for(int i = 0; i < weights.length; i++) {
+			weights[i] /= total;
+		}
+
+		return weights;
+	}
+
+	/**
+	 *
+	 * The total prior of the remaining words, the weight score() shares out between them.
+	 *
+	 * @return the total prior. 0 without priors or if no remaining word is an answer
+	 */
+	double remainingWeight() {
+
+		double total = 0;
+
+		if(this.priors != null) {
+			for(String word : this.library) {
+				total += this.priors.prior(word);
+			}
+		}
+
+		return total;
+	}
+
+	/**
+	 *
+	 * Scores any word as the next guess against the remaining words, the same way
+	 * getNextWord() scores the remaining words with ENTROPY or EXPECTED_GUESSES.
+	 *
+	 * @param guess the word to score
+	 * @return score of the guess. Higher scores are better
+	 */
+	double score(String guess) {
+
+		String[] candidates = this.library.toArray(new String[0]);
+		double[] weights = this.getCandidateWeights(candidates);
+		int[] tableIndexes = this.getTableIndexes(candidates);
+		int guessIndex = tableIndexes == null ? -1 : this.feedbackTable.library().indexOf(guess);
+
+		return this.scoreGuess(guess, guessIndex, candidates, tableIndexes, weights);
+	}
+
+	/**
+	 *
+	 * Scores a guess against the remaining words by grouping them by the results the guess
+	 * would get. Higher scores are better.
+	 *
+	 * ENTROPY scores by the expected bits of information from the results. EXPECTED_GUESSES
+	 * scores by the negative of the estimated guesses to finish, where a group of n words
+	 * is estimated to take 1 + log3(n) more guesses and the group of the guess itself takes none.
+	 *
+	 * Patterns are read from the feedback table when the guess and candidates have indexes in
+	 * it, otherwise they are computed from the words. Words up to 10 letters are counted into an
+	 * array of every pattern kept by the GuessManager, longer words by sorting their patterns, so
+	 * scoring never allocates more than the remaining words take.
+	 *
+	 * @param guess the word to score
+	 * @param guessIndex index of the guess in the feedback table. -1 if not in the table
+	 * @param candidates the remaining possible words
+	 * @param tableIndexes index of each candidate in the feedback table. null if there is none
+	 * @param weights the weight of each candidate
+	 * @return score of the guess
+	 */
+	double scoreGuess(String guess, int guessIndex, String[] candidates, int[] tableIndexes, double[] weights) {
+
+		int[] patterns = new int[candidates.length];
+
+		if(guessIndex != -1 && tableIndexes != null) {
+			for(int i = 0; i < candidates.length; i++) {
+				patterns[i] = this.feedbackTable.pattern(guessIndex, tableIndexes[i]);
+			}
+		} else {
+			for(int i = 0; i < candidates.length; i++) {
+				patterns[i] = WordleGame.getPattern(guess, candidates[i]);
+			}
+		}
+
+		int numPatterns = WordleGame.getNumPatterns(this.wordleLength);
+		int winPattern = WordleGame.getWinPattern(this.wordleLength);
+
+		if(numPatterns > MAX_DENSE_PATTERNS) {
+			return this.scoreSparse(patterns, weights, winPattern);
+		}
+
+		// one array of every pattern is kept and cleared after each guess
+		if(this.patternWeights == null || this.patternWeights.length != numPatterns) {
+			this.patternWeights = new double[numPatterns];
+			this.patternCounts = new int[numPatterns];
+		}
+
+		double[] patternWeights = this.patternWeights;
+		int[] patternCounts = this.patternCounts;
+
+		for(int i = 0; i < candidates.length; i++) {
+			patternWeights[patterns[i]] += weights[i];
+			patternCounts[patterns[i]]++;
+		}
+
+		double score = this.strategy == GuessStrategy.ENTROPY ? 0 : -1;
+
+		for(int pattern = 0; pattern < numPatterns; pattern++) {
+
+			if(patternCounts[pattern] == 0) {
+				continue;
+			}
+
+			score += this.patternScore(patternWeights[pattern], patternCounts[pattern], pattern == winPattern);
+		}
+
+		for(int pattern : patterns) {
+			patternWeights[pattern] = 0;
+			patternCounts[pattern] = 0;
+		}
+
+		return this.strategy == GuessStrategy.ENTROPY ? score / Math.log(2) : score;
+	}
+
+	/**
+	 *
+	 * Scores a guess by sorting the patterns it gets instead of counting into an array of every
+	 * pattern, for words long enough that the array would be too large. Patterns are added up in
+	 * the same order as scoreGuess() so the score is the same.
+	 *
+	 */
+	private double scoreSparse(int[] patterns, double[] weights, int winPattern) {
+
+		long[] sorted = new long[patterns.length];
+		for(int i = 0; i < patterns.length; i++) {
+			sorted[i] = (long) patterns[i] << 32 | i;
+		}
+
+		Arrays.sort(sorted);
+
+		double score = this.strategy == GuessStrategy.ENTROPY ? 0 : -1;
+
+		for(int i = 0; i < sorted.length; ) {
+
+			int pattern = (int) (sorted[i] >>> 32);
+			double weight = 0;
+			int count = 0;
+
+			for(; i < sorted.length && (int) (sorted[i] >>> 32) == pattern; i++) {
+				weight += weights[(int) sorted[i]];
+				count++;
+			}
+
+			score += this.patternScore(weight, count, pattern == winPattern);
+		}
+
+		return this.strategy == GuessStrategy.ENTROPY ? score / Math.log(2) : score;
+	}
+
+	/**
+	 *
+	 * The part of a score from the group of words getting one pattern: minus its weight times
+	 * the log of its weight for ENTROPY, and minus its weight times the estimated guesses to
+	 * finish it for EXPECTED_GUESSES.
+	 *
+	 */
+	private double patternScore(double weight, int count, boolean win) {
+
+		if(this.strategy == GuessStrategy.ENTROPY) {
+			return weight > 0 ? -weight * Math.log(weight) : 0;
+		}
+
+		return win ? 0 : -weight * (1 + Math.log(count) / Math.log(3));
+	}
+
+	/**
+	 *
+	 * Sets the logic used by getNextWord(). HIGHEST_IMPACT is used unless changed.
+	 *
+	 * @param strategy the logic to pick the next word
+	 */
+	public void setStrategy(GuessStrategy strategy) { this.strategy = strategy; }
+
+	/**
+	 *
+	 * Sets the library whose priors weight the remaining words when scoring guesses. Without
+	 * priors every remaining word is treated as equally likely.
+	 *
+	 * @param priors library of the likelihood of each word being the wordle
+	 */
+	public void setPriors(WordleLibrary priors) { this.priors = priors; }
+
+	/**
+	 *
+	 * Sets the table patterns are read from when scoring guesses instead of computing them.
+	 * The table can be shared with other GuessManagers since it is only read.
+	 *
+	 * @param feedbackTable table of the patterns between the words of the library
+	 */
+	public void setFeedbackTable(FeedbackTable feedbackTable) { this.feedbackTable = feedbackTable; }
+
+	/**
+	 *
+	 * Sets whether ENTROPY and EXPECTED_GUESSES score every word of the priors as the next guess
+	 * instead of only the remaining words. A word that can't be the wordle can still split the
+	 * remaining words better than any that can. Has no effect without priors. Off unless changed.
+	 *
+	 * @param scoreAllWords true to score every word
+	 */
+	public void setScoreAllWords(boolean scoreAllWords) { this.scoreAllWords = scoreAllWords; }
+
+	/**
+	 *
+	 * Sets whether scoring every word first drops the guesses GuessPruner finds can't change the
+	 * result. Only turned off to check or time the pruning. On unless changed.
+	 *
+	 * @param pruneGuesses true to prune the guesses
+	 */
+	public void setPruneGuesses(boolean pruneGuesses) { this.pruneGuesses = pruneGuesses; }
+
+	/**
+	 *
+	 * Gets how much GuessPruner shrank the guesses the last time every word was scored.
+	 *
+	 * @return the last pruning. null if every word hasn't been scored with pruning on
+	 */
+	public GuessPruner.Pruning lastPruning() { return this.lastPruning; }
+
+	/**
+	 *
+	 * Gets the logic used by getNextWord().
+	 *
+	 * @return the current strategy
+	 */
+	public GuessStrategy strategy() { return this.strategy; }
+
 	/**
 	 *
 	 * Counts the characters of the words found in the word list. destination array counts are 
@@ -365,73 +1181,80 @@ public class GuessManager {
 	 * an incorrect letter is guessed.
 	 *
 	 * @param nthMax The number of highest count
-	 * @param remaining the remaining possible words
+	 * @param remaining the remaining possible words. Not modified
+	 * @param libraryCounts the character counts of the library
 	 * @return the single word that contains the highest amount of high count letters
 	 */
-	private String getHighestImpactWord(int nthMax, List<String> remaining) {
+	private String getHighestImpactWord(int nthMax, List<String> remaining, int[] libraryCounts) {
 
 //		System.out.println("getHighestImpactWord() n = " + nthMax); // for testing
 //		System.out.println("library.size(): " + library); // for testing
 
-		// count letters in library
-		int[] tempCounts = new int[26];
-		this.countChars(library, tempCounts);
-
 		// get nth max character
-		char nthMaxChar = this.getNthMaxChar(nthMax, tempCounts);
+		char nthMaxChar = this.getNthMaxChar(nthMax, libraryCounts);
 //		System.out.println(nthMax + "thMaxChar: " + Character.toString(nthMaxChar)); // for testing
 
 		// rules out letters that have already been guessed
 		if(Arrays.toString(this.wordleKnown).indexOf(nthMaxChar) != -1) {
 //			System.out.println("ALREADY KNOW ABOUT " + Character.toString(nthMaxChar) + "\n"); // for testing
-			return getHighestImpactWord(nthMax+1, remaining);
+			return getHighestImpactWord(nthMax+1, remaining, libraryCounts);
 		}
 
 		if(Arrays.toString(this.wordleIncludes).indexOf(nthMaxChar) != -1) {
 //			System.out.println("ALREADY KNOW ABOUT " + Character.toString(nthMaxChar) + "\n"); // for testing
-			return getHighestImpactWord(nthMax+1, remaining);
+			return getHighestImpactWord(nthMax+1, remaining, libraryCounts);
 		}
 
-		//save possible words before elimination in the case there are zero left
-		List<String> lastRemaining = new LinkedList<>(remaining);
-
-		// remove words that don't contain nth most frequent letter
-		for(int i = 0; i < remaining.size(); i++) {
-
-			if(remaining.get(i).indexOf(nthMaxChar) == -1) {
-				remaining.remove(i);
-				i--;
-			}
-		}
+		// remove words that don't contain nth most frequent letter from a copy, keeping the
+		// possible words before elimination in the case there are zero left
+		List<String> filtered = copyOf(remaining);
+		filtered.removeIf(word -> word.indexOf(nthMaxChar) == -1);
 
 //		System.out.println("this.library.size(): " + this.library.size()); // for testing
-//		System.out.println("remaining.size(): " + remaining.size()); // for testing
-//		System.out.println(remaining + "\n"); // for testing
+//		System.out.println("filtered.size(): " + filtered.size()); // for testing
+//		System.out.println(filtered + "\n"); // for testing
 
 		// if there is only one possibility
-		if(remaining.size() == 1) {
+		if(filtered.size() == 1) {
 
 //			System.out.println("ONE WORD REMAINING"); // for testing
-			return remaining.get(0);
+			return filtered.get(0);
 		}
 
 		// if all the words were eliminated return the most linguistically frequent word
 		// from the previous list
-		if(remaining.size() == 0) {
+		if(filtered.size() == 0) {
 //			System.out.println("NONE LEFT AT " + nthMax + "\n"); // for testing
-			return lastRemaining.get(0);
+			return remaining.get(0);
 		}
 
 		// if the iteration is the most letters there can be pick the most linguistically
 		// frequent one left
 		if(nthMax == this.wordleLength-1) {
 //			System.out.println("BASE CASE"); // for testing
-			return remaining.get(0);
+			return filtered.get(0);
 		}
 
 		// recursive call
 //		System.out.println("RECURSIVE CALL"); // for testing
-		return this.getHighestImpactWord(nthMax+1, remaining);
+		return this.getHighestImpactWord(nthMax+1, filtered, libraryCounts);
+	}
+
+	/**
+	 *
+	 * Copies a list of words so it can be modified. Views of a WordleLibrary are copied in
+	 * constant time.
+	 *
+	 * @param words the words to copy
+	 * @return a modifiable copy
+	 */
+	private static List<String> copyOf(List<String> words) {
+
+		if(words instanceof LibraryView) {
+			return ((LibraryView) words).copy();
+		}
+
+		return new ArrayList<>(words);
 	}
 
 	/**
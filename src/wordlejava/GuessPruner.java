@@ -0,0 +1,405 @@
+package wordlejava;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ *
+ * Shrinks the words worth scoring as the next guess when any word may be guessed. The digit of a
+ * position of a pattern only depends on the letter of the guess at that position, so a letter at a
+ * position splits the remaining words the same way in every guess. The column of a letter at a
+ * position is the digit it gets against each remaining word, and a guess is fingerprinted by the
+ * column of each of its positions.
+ *
+ * 		collapsing: guesses with the same fingerprint get the same pattern against every remaining
+ * 		            word, so they get the same score and only the earliest in the library is scored
+ * 		dominance:  a guess whose columns split the words a subset of the ways another guess's
+ * 		            columns do, with the words that carry weight in fewer groups, scores worse
+ * 		            than it. The guess is dropped when the other guess is earlier in the
+ * 		            library and the guess isn't a remaining word, since a remaining word could
+ * 		            be the wordle
+ *
+ * Columns that give every remaining word the same digit, such as those of letters no remaining
+ * word has, don't split anything. Late in a game most letters are like that, so thousands of
+ * words collapse into a few groups. The words left are the ones scoring every word would pick
+ * from, so the best guess is the same. Early in a game, when nearly every guess has a
+ * fingerprint of its own, nothing is pruned.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class GuessPruner {
+
+	// every subset of at most this many columns is checked for dominance, otherwise single removals
+	private static final int MAX_SUBSET_COLUMNS = 6;
+
+	// nothing is pruned while more than this share of the guesses remain
+	private static final double MAX_CANDIDATE_SHARE = 1.0 / 32;
+
+	// dominance is only checked once collapsing leaves at most this share of the guesses
+	private static final double MAX_GROUP_SHARE = 0.5;
+
+	private final String[] guesses;
+	private final int wordleLength;
+	private final byte[] letters;
+	private final boolean[] used;
+
+	/**
+	 *
+	 * Creates a pruner of every word of a library as a guess, reading the letters of the words
+	 * once so each pruning doesn't.
+	 *
+	 * @param library the words that may be guessed
+	 */
+	public GuessPruner(WordleLibrary library) {
+
+		this.guesses = library.words().toArray(new String[0]);
+		this.wordleLength = library.wordleLength();
+
+		// letters of each guess and the letters each position has in some guess
+		byte[] letters = new byte[this.guesses.length * this.wordleLength];
+		boolean[] used = new boolean[this.wordleLength * 26];
+
+		for(int g = 0; g < this.guesses.length && letters != null; g++) {
+			for(int j = 0; j < this.wordleLength; j++) {
+
+				int letter = this.guesses[g].charAt(j) - 'a';
+				if(letter < 0 || letter >= 26) {
+					letters = null;
+					break;
+				}
+
+				letters[g * this.wordleLength + j] = (byte) letter;
+				used[j * 26 + letter] = true;
+			}
+		}
+
+		this.letters = letters;
+		this.used = used;
+	}
+
+	/**
+	 *
+	 * The words that may be guessed, in library order. Not to be modified.
+	 *
+	 * @return the guesses
+	 */
+	String[] guesses() { return this.guesses; }
+
+	/**
+	 *
+	 * Finds the guesses worth scoring against the remaining words.
+	 *
+	 * @param isCandidate whether each guess is a remaining word
+	 * @param candidates the remaining possible words
+	 * @param weights the weight of each candidate when scoring
+	 * @return the guesses worth scoring. Every guess if a word has a letter other than a to z
+	 */
+	public Pruning prune(boolean[] isCandidate, String[] candidates, double[] weights) {
+
+		String[] guesses = this.guesses;
+		int wordleLength = this.wordleLength;
+
+		// with this many words left nearly every guess has a fingerprint of its own
+		if(this.letters == null || candidates.length > guesses.length * MAX_CANDIDATE_SHARE) {
+			return Pruning.unpruned(guesses.length);
+		}
+
+		int[] masks = new int[candidates.length];
+
+		for(int k = 0; k < candidates.length; k++) {
+			for(int j = 0; j < wordleLength; j++) {
+
+				int letter = candidates[k].charAt(j) - 'a';
+				if(letter < 0 || letter >= 26) {
+					return Pruning.unpruned(guesses.length);
+				}
+
+				masks[k] |= 1 << letter;
+			}
+		}
+
+		// column and split of each letter at each position
+		int[] columnIds = new int[wordleLength * 26];
+		int[] splitIds = new int[wordleLength * 26];
+
+		HashMap<String, Integer> columns = new HashMap<>();
+		HashMap<String, Integer> splits = new HashMap<>();
+		byte[] column = new byte[candidates.length];
+		byte[] split = new byte[candidates.length];
+		for(int j = 0; j < wordleLength; j++) {
+			for(int letter = 0; letter < 26; letter++) {
+
+				int cell = j * 26 + letter;
+				if(!this.used[cell]) {
+					continue;
+				}
+
+				for(int k = 0; k < candidates.length; k++) {
+					column[k] = (byte) (candidates[k].charAt(j) - 'a' == letter ? 1 : (masks[k] & (1 << letter)) != 0 ? 2 : 0);
+				}
+
+				columnIds[cell] = columns.computeIfAbsent(new String(column, StandardCharsets.ISO_8859_1), key -> columns.size());
+				splitIds[cell] = splitId(column, split, splits);
+			}
+		}
+
+		// earliest guess of each fingerprint, and the splits of each fingerprint
+		LinkedHashMap<String, Integer> groups = new LinkedHashMap<>();
+		HashMap<Integer, String> groupSplits = new HashMap<>();
+		char[] fingerprint = new char[wordleLength];
+		char[] guessSplits = new char[wordleLength];
+
+		for(int g = 0; g < guesses.length; g++) {
+
+			for(int j = 0; j < wordleLength; j++) {
+				fingerprint[j] = (char) columnIds[j * 26 + this.letters[g * wordleLength + j]];
+			}
+
+			if(groups.putIfAbsent(new String(fingerprint), g) != null) {
+				continue;
+			}
+
+			// the distinct splits of the guess in order, as the key of the set of them
+			int n = 0;
+			for(int j = 0; j < wordleLength; j++) {
+
+				int id = splitIds[j * 26 + this.letters[g * wordleLength + j]];
+				if(id != -1) {
+					guessSplits[n++] = (char) id;
+				}
+			}
+
+			Arrays.sort(guessSplits, 0, n);
+
+			int distinct = 0;
+			for(int i = 0; i < n; i++) {
+				if(distinct == 0 || guessSplits[distinct - 1] != guessSplits[i]) {
+					guessSplits[distinct++] = guessSplits[i];
+				}
+			}
+
+			groupSplits.put(g, new String(guessSplits, 0, distinct));
+		}
+
+		// earliest guess splitting the words each way, then the earliest guess splitting them into
+		// more groups. Only worth finding once collapsing has left few enough groups
+		HashMap<String, Integer> dominatedAfter = new HashMap<>();
+
+		if(groups.size() <= guesses.length * MAX_GROUP_SHARE) {
+
+			HashMap<String, Integer> earliest = new HashMap<>();
+			for(int g : groups.values()) {
+				earliest.merge(groupSplits.get(g), g, Math::min);
+			}
+
+			String[] splitLabels = new String[splits.size()];
+			for(Map.Entry<String, Integer> entry : splits.entrySet()) {
+				splitLabels[entry.getValue()] = entry.getKey();
+			}
+
+			HashMap<String, Integer> classes = new HashMap<>();
+
+			for(Map.Entry<String, Integer> entry : earliest.entrySet()) {
+				for(String subset : properSubsets(entry.getKey())) {
+
+					// a subset of the splits can still split the words into the same groups, and the
+					// same score summed in another order can differ in the last bit, so only a guess
+					// splitting the words that carry weight into more groups dominates
+					if(earliest.containsKey(subset) && classes(entry.getKey(), splitLabels, weights, classes)
+							> classes(subset, splitLabels, weights, classes)) {
+						dominatedAfter.merge(subset, entry.getValue(), Math::min);
+					}
+				}
+			}
+		}
+
+		int[] kept = new int[groups.size()];
+		int keptCount = 0;
+
+		for(int g : groups.values()) {
+
+			Integer dominator = dominatedAfter.get(groupSplits.get(g));
+			if(isCandidate[g] || dominator == null || dominator > g) {
+				kept[keptCount++] = g;
+			}
+		}
+
+		kept = Arrays.copyOf(kept, keptCount);
+		Arrays.sort(kept);
+
+		return new Pruning(guesses.length, groups.size(), kept);
+	}
+
+	/**
+	 *
+	 * Numbers the way a column splits the remaining words, the digits relabelled in the order they
+	 * first appear so columns splitting the words the same way get the same number.
+	 *
+	 * @return the number of the split. -1 if the column gives every word the same digit
+	 */
+	private static int splitId(byte[] column, byte[] split, HashMap<String, Integer> splits) {
+
+		byte[] labels = {-1, -1, -1};
+		byte next = 0;
+
+		for(int k = 0; k < column.length; k++) {
+
+			if(labels[column[k]] == -1) {
+				labels[column[k]] = next++;
+			}
+
+			split[k] = labels[column[k]];
+		}
+
+		if(next <= 1) {
+			return -1;
+		}
+
+		return splits.computeIfAbsent(new String(split, StandardCharsets.ISO_8859_1), key -> splits.size());
+	}
+
+	/**
+	 *
+	 * The number of groups a set of splits divides the remaining words with a weight into,
+	 * remembered for each set. Words without weight don't change a score wherever they go.
+	 *
+	 */
+	private static int classes(String set, String[] splitLabels, double[] weights, HashMap<String, Integer> classes) {
+
+		Integer known = classes.get(set);
+		if(known != null) {
+			return known;
+		}
+
+		HashSet<Long> groups = new HashSet<>();
+
+		for(int k = 0; k < weights.length; k++) {
+
+			if(weights[k] <= 0) {
+				continue;
+			}
+
+			long group = 0;
+			for(int i = 0; i < set.length(); i++) {
+				group = group * 3 + splitLabels[set.charAt(i)].charAt(k);
+			}
+
+			groups.add(group);
+		}
+
+		classes.put(set, groups.size());
+
+		return groups.size();
+	}
+
+	/**
+	 *
+	 * The proper subsets of a set of splits, or only the subsets one smaller for large sets. Sets
+	 * are strings of split numbers in order.
+	 *
+	 */
+	private static List<String> properSubsets(String set) {
+
+		ArrayList<String> subsets = new ArrayList<>();
+
+		if(set.length() > MAX_SUBSET_COLUMNS) {
+
+			for(int i = 0; i < set.length(); i++) {
+				subsets.add(set.substring(0, i) + set.substring(i + 1));
+			}
+
+			return subsets;
+		}
+
+		char[] subset = new char[set.length()];
+
+		for(int mask = 0; mask < (1 << set.length()) - 1; mask++) {
+
+			int n = 0;
+			for(int i = 0; i < set.length(); i++) {
+				if((mask & (1 << i)) != 0) {
+					subset[n++] = set.charAt(i);
+				}
+			}
+
+			subsets.add(new String(subset, 0, n));
+		}
+
+		return subsets;
+	}
+
+	/**
+	 *
+	 * The guesses left to score after collapsing and dropping dominated guesses.
+	 *
+	 */
+	public static final class Pruning {
+
+		private final int guesses;
+		private final int groups;
+		private final int[] kept;
+
+		private Pruning(int guesses, int groups, int[] kept) {
+
+			this.guesses = guesses;
+			this.groups = groups;
+			this.kept = kept;
+		}
+
+		private static Pruning unpruned(int guesses) {
+
+			int[] kept = new int[guesses];
+			for(int i = 0; i < guesses; i++) {
+				kept[i] = i;
+			}
+
+			return new Pruning(guesses, guesses, kept);
+		}
+
+		/**
+		 *
+		 * The number of words that may be guessed.
+		 *
+		 * @return int of the guesses
+		 */
+		public int guesses() { return this.guesses; }
+
+		/**
+		 *
+		 * The number of distinct fingerprints among the guesses.
+		 *
+		 * @return int of the groups
+		 */
+		public int groups() { return this.groups; }
+
+		/**
+		 *
+		 * The number of guesses left to score.
+		 *
+		 * @return int of the kept guesses
+		 */
+		public int keptCount() { return this.kept.length; }
+
+		/**
+		 *
+		 * The indexes of the guesses left to score, in library order.
+		 *
+		 * @return the kept indexes
+		 */
+		int[] kept() { return this.kept; }
+
+		/**
+		 *
+		 * How many times fewer guesses are scored.
+		 *
+		 * @return the guesses over the kept guesses
+		 */
+		public double shrink() { return this.kept.length == 0 ? 1 : (double) this.guesses / this.kept.length; }
+
+		public String toString() {
+
+			return String.format("%d guesses, %d groups, %d scored (%.1fx)", this.guesses, this.groups, this.kept.length, this.shrink());
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package wordlejava;
+
+/**
+ *
+ * The logic GuessManager uses to pick the next word. Scoring strategies weight every possible
+ * wordle by its prior when the GuessManager has been given a WordleLibrary, otherwise every
+ * remaining word is treated as equally likely.
+ *
+ * @author johnmatthew
+ *
+ */
+public enum GuessStrategy {
+
+	/**
+	 * Picks the word that includes the most of the highest count letters in the remaining words.
+	 */
+	HIGHEST_IMPACT,
+
+	/**
+	 * Picks the word whose results split the remaining words with the most expected information.
+	 */
+	ENTROPY,
+
+	/**
+	 * Picks the word with the lowest estimated number of guesses left to find the wordle,
+	 * counting the chance that the word itself is the wordle.
+	 */
+	EXPECTED_GUESSES
+}
@@ -0,0 +1,99 @@
+package wordlejava;
+
+import java.util.stream.IntStream;
+
+/**
+ *
+ * FeedbackTable held in arrays on the heap. Every pattern is computed when the table is
+ * created and only read afterwards so a single table can be shared by every game and thread
+ * using the same library.
+ *
+ * Patterns of words up to 5 letters are stored in a byte each, longer words use two bytes.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class HeapFeedbackTable implements FeedbackTable {
+
+	private final WordleLibrary library;
+	private final int size;
+	private final byte[] bytePatterns;
+	private final char[] charPatterns;
+
+	/**
+	 *
+	 * Builds the table for every pair of words in a library, filling rows in parallel.
+	 *
+	 * @param library the words to guess against each other
+	 * @throws IllegalArgumentException if the words are too long for a pattern to fit in two bytes
+	 */
+	public HeapFeedbackTable(WordleLibrary library) {
+
+		int numPatterns = WordleGame.getNumPatterns(library.wordleLength());
+
+		if(numPatterns > Character.MAX_VALUE + 1) {
+			throw new IllegalArgumentException("words too long for a feedback table: " + library.wordleLength());
+		}
+
+		this.library = library;
+		this.size = library.size();
+
+		long cells = (long) this.size * this.size;
+		if(cells > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("library too large for a feedback table: " + this.size);
+		}
+
+		if(numPatterns <= 256) {
+			this.bytePatterns = new byte[(int) cells];
+			this.charPatterns = null;
+		} else {
+			this.bytePatterns = null;
+			this.charPatterns = new char[(int) cells];
+		}
+
+		IntStream.range(0, this.size).parallel().forEach(this::fillRow);
+	}
+
+	/**
+	 *
+	 * Creates a table from patterns that were already computed, such as those of a
+	 * SolverSnapshot. Exactly one of the arrays is given, by the length of the words.
+	 *
+	 * @param library the words indexing the patterns
+	 * @param bytePatterns patterns of words up to 5 letters, row by row. null for longer words
+	 * @param charPatterns patterns of longer words, row by row. null for shorter words
+	 */
+	HeapFeedbackTable(WordleLibrary library, byte[] bytePatterns, char[] charPatterns) {
+
+		this.library = library;
+		this.size = library.size();
+		this.bytePatterns = bytePatterns;
+		this.charPatterns = charPatterns;
+	}
+
+	private void fillRow(int guess) {
+
+		String guessWord = this.library.word(guess);
+		int row = guess * this.size;
+
+		for(int answer = 0; answer < this.size; answer++) {
+
+			int pattern = WordleGame.getPattern(guessWord, this.library.word(answer));
+
+			if(this.bytePatterns != null) {
+				this.bytePatterns[row + answer] = (byte) pattern;
+			} else {
+				this.charPatterns[row + answer] = (char) pattern;
+			}
+		}
+	}
+
+	public int pattern(int guess, int answer) {
+
+		int cell = guess * this.size + answer;
+
+		return this.bytePatterns != null ? this.bytePatterns[cell] & 0xFF : this.charPatterns[cell];
+	}
+
+	public WordleLibrary library() { return this.library; }
+}
@@ -0,0 +1,155 @@
+package wordlejava;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * Histogram of latencies in nanoseconds that can be recorded from many threads at once without
+ * locking. Buckets are log-linear: every power of two is split into 16 equal buckets so any
+ * recorded value is within about 6% of the bucket it lands in.
+ *
+ * @author johnmatthew
+ *
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int NUM_BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets;
+	private final LongAdder count;
+	private final LongAdder sum;
+
+	public LatencyHistogram() {
+
+		this.buckets = new AtomicLongArray(NUM_BUCKETS);
+		this.count = new LongAdder();
+		this.sum = new LongAdder();
+	}
+
+	/**
+	 *
+	 * Records a single latency. Negative values are recorded as 0.
+	 *
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void record(long nanos) {
+
+		long value = Math.max(0, nanos);
+
+		this.buckets.incrementAndGet(bucketIndex(value));
+		this.count.increment();
+		this.sum.add(value);
+	}
+
+	/**
+	 *
+	 * Finds the bucket of a value. Values below 16 get their own bucket.
+	 *
+	 * @param value value that is not negative
+	 * @return index of the bucket
+	 */
+	static int bucketIndex(long value) {
+
+		if(value < SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 *
+	 * The largest value that lands in a bucket.
+	 *
+	 * @param index index of the bucket
+	 * @return upper bound of the bucket, inclusive
+	 */
+	static long bucketUpperBound(int index) {
+
+		if(index < SUB_BUCKETS) {
+			return index;
+		}
+
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long subBucket = index % SUB_BUCKETS;
+		int shift = exponent - SUB_BUCKET_BITS;
+
+		// the last bucket wraps around to Long.MAX_VALUE
+		return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 *
+	 * Estimates the value below which a fraction of the recorded values fall. Recording can
+	 * continue while this runs so the result may be off by the values recorded meanwhile.
+	 *
+	 * @param quantile fraction between 0 and 1, 0.99 for p99
+	 * @return upper bound of the bucket holding the quantile. 0 if nothing was recorded
+	 */
+	public long percentile(double quantile) {
+
+		long[] snapshot = new long[NUM_BUCKETS];
+		long total = 0;
+
+		for(int i = 0; i < NUM_BUCKETS; i++) {
+			snapshot[i] = this.buckets.get(i);
+			total += snapshot[i];
+		}
+
+		if(total == 0) {
+			return 0;
+		}
+
+		long rank = (long) Math.ceil(quantile * total);
+		long seen = 0;
+
+		for(int i = 0; i < NUM_BUCKETS; i++) {
+
+			seen += snapshot[i];
+			if(seen >= rank && snapshot[i] > 0) {
+				return bucketUpperBound(i);
+			}
+		}
+
+		return bucketUpperBound(NUM_BUCKETS - 1);
+	}
+
+	/**
+	 *
+	 * The number of values recorded.
+	 *
+	 * @return long of the count
+	 */
+	public long count() { return this.count.sum(); }
+
+	/**
+	 *
+	 * The sum of all values recorded.
+	 *
+	 * @return long of the sum in nanoseconds
+	 */
+	public long sum() { return this.sum.sum(); }
+
+	/**
+	 *
+	 * Returns the count, mean and common percentiles in microseconds.
+	 *
+	 */
+	public String toString() {
+
+		long n = this.count();
+		double mean = n == 0 ? 0 : this.sum() / (double) n / 1000;
+
+		return String.format("count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+				n, mean,
+				this.percentile(0.5) / 1000.0, this.percentile(0.9) / 1000.0,
+				this.percentile(0.99) / 1000.0, this.percentile(0.999) / 1000.0,
+				this.percentile(1.0) / 1000.0);
+	}
+}
@@ -0,0 +1,188 @@
+package wordlejava;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ *
+ * List of the remaining words of a game backed by a shared WordleLibrary. The remaining words are
+ * kept as a CandidateSet of their indexes in the library, which begins as a single run covering
+ * every word, so starting a game takes constant time and memory no matter the size of the
+ * library. Refining intersects sets without reading the words, and the indexes are only listed
+ * out when words are read by position. Copies share the set since it is never modified.
+ *
+ * The library is never modified. Views are not safe to modify from more than one thread.
+ *
+ * @author johnmatthew
+ *
+ */
+public class LibraryView extends AbstractList<String> implements RandomAccess {
+
+	private final WordleLibrary library;
+	private CandidateSet survivors;
+	private int[] indexes;
+	private boolean all;
+
+	/**
+	 *
+	 * Creates a view of every word in a library.
+	 *
+	 * @param library the library to view
+	 */
+	public LibraryView(WordleLibrary library) {
+
+		this.library = library;
+		this.survivors = null;
+		this.indexes = null;
+		this.all = true;
+	}
+
+	private LibraryView(WordleLibrary library, CandidateSet survivors, int[] indexes, boolean all) {
+
+		this.library = library;
+		this.survivors = survivors;
+		this.indexes = indexes;
+		this.all = all;
+	}
+
+	/**
+	 *
+	 * Copies the view in constant time.
+	 *
+	 * @return a view of the same words
+	 */
+	public LibraryView copy() { return new LibraryView(this.library, this.survivors, this.indexes, this.all); }
+
+	public String get(int i) { return this.library.word(this.index(i)); }
+
+	public int size() { return this.all ? this.library.size() : this.survivors.cardinality(); }
+
+	/**
+	 *
+	 * Gets the index in the library of a word in the view.
+	 *
+	 * @param i index of the word in the view
+	 * @return index of the word in the library
+	 */
+	public int index(int i) {
+
+		Objects.checkIndex(i, this.size());
+
+		return this.all ? i : this.indexes()[i];
+	}
+
+	/**
+	 *
+	 * The indexes of the remaining words in the library, in increasing order.
+	 *
+	 * @return the set of remaining indexes
+	 */
+	public CandidateSet candidates() {
+
+		if(this.survivors == null) {
+			this.survivors = this.library.all();
+		}
+
+		return this.survivors;
+	}
+
+	/**
+	 *
+	 * The library the view reads from.
+	 *
+	 * @return the library of the view
+	 */
+	public WordleLibrary library() { return this.library; }
+
+	/**
+	 *
+	 * Keeps only the words whose indexes are in a set.
+	 *
+	 * @param keep set of indexes in the library to keep
+	 */
+	public void retain(CandidateSet keep) { this.setSurvivors(this.candidates().and(keep)); }
+
+	/**
+	 *
+	 * Removes the words whose indexes are in a set.
+	 *
+	 * @param remove set of indexes in the library to remove
+	 */
+	public void removeAll(CandidateSet remove) { this.setSurvivors(this.candidates().andNot(remove)); }
+
+	public String remove(int i) {
+
+		String word = this.get(i);
+		int[] current = this.indexes();
+		int size = this.size();
+		int[] kept = new int[size - 1];
+
+		System.arraycopy(current, 0, kept, 0, i);
+		System.arraycopy(current, i + 1, kept, i, size - i - 1);
+		this.setIndexes(kept, kept.length);
+
+		return word;
+	}
+
+	/**
+	 *
+	 * Removes every word matching the filter in a single pass.
+	 *
+	 */
+	public boolean removeIf(Predicate<? super String> filter) {
+
+		int size = this.size();
+		int[] kept = new int[size];
+		int keptSize = 0;
+
+		for(int i = 0; i < size; i++) {
+
+			int index = this.all ? i : this.indexes()[i];
+
+			if(!filter.test(this.library.word(index))) {
+				kept[keptSize++] = index;
+			}
+		}
+
+		if(keptSize == size) {
+			return false;
+		}
+
+		this.setIndexes(kept, keptSize);
+
+		return true;
+	}
+
+	public void clear() { this.setSurvivors(CandidateSet.empty()); }
+
+	/**
+	 *
+	 * Lists the indexes of the set the first time they are read by position.
+	 *
+	 * @return the remaining indexes in increasing order
+	 */
+	private int[] indexes() {
+
+		if(this.indexes == null) {
+			this.indexes = this.candidates().toArray();
+		}
+
+		return this.indexes;
+	}
+
+	private void setSurvivors(CandidateSet survivors) {
+
+		this.survivors = survivors;
+		this.indexes = null;
+		this.all = false;
+		this.modCount++;
+	}
+
+	private void setIndexes(int[] indexes, int size) {
+
+		this.survivors = CandidateSet.of(indexes, size);
+		this.indexes = size == indexes.length ? indexes : Arrays.copyOf(indexes, size);
+		this.all = false;
+		this.modCount++;
+	}
+}
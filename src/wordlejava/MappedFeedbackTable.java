@@ -0,0 +1,271 @@
+package wordlejava;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.*;
+import java.util.stream.IntStream;
+
+/**
+ *
+ * FeedbackTable held in a memory mapped file instead of on the heap, so tables of large
+ * libraries and long words don't add to the work of the garbage collector. Every process on the
+ * machine that opens the same file maps the same pages, so they share one copy of the table.
+ *
+ * Rows are filled in tiles of TILE_ROWS guesses the first time a pattern of the tile is read.
+ * The file holds a flag for each tile that is set once the tile is written, so a tile filled by
+ * one process is never filled again by another. Two processes may fill the same tile at once,
+ * which is harmless since they write the same patterns. A process that stops while filling a
+ * tile leaves its flag clear and the tile is filled again.
+ *
+ * The file is a 64 byte header, the flags of the tiles and then the patterns row by row:
+ *
+ * 		header: magic, format version, word length, words, bytes per pattern, rows per tile,
+ * 				tiles, fingerprint of the words of the library
+ *
+ * Numbers are in the byte order of the machine since the file is only meant to be shared on it.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class MappedFeedbackTable implements FeedbackTable {
+
+	public static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Number of guesses filled together the first time one of them is read.
+	 */
+	public static final int TILE_ROWS = 64;
+
+	private static final int TILE_SHIFT = Integer.numberOfTrailingZeros(TILE_ROWS);
+	private static final int TILE_MASK = TILE_ROWS - 1;
+
+	private static final long MAGIC = 0x574F52444C544231L; // "WORDLTB1"
+	private static final int HEADER_BYTES = 64;
+
+	private static final VarHandle READY = MethodHandles.arrayElementVarHandle(int[].class);
+	private static final VarHandle FLAG = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+	private final WordleLibrary library;
+	private final int size;
+	private final int bytesPerPattern;
+	private final MappedByteBuffer header;
+	private final MappedByteBuffer[] tiles;
+	private final int[] ready;
+
+	private MappedFeedbackTable(WordleLibrary library, int bytesPerPattern, MappedByteBuffer header, MappedByteBuffer[] tiles) {
+
+		this.library = library;
+		this.size = library.size();
+		this.bytesPerPattern = bytesPerPattern;
+		this.header = header;
+		this.tiles = tiles;
+		this.ready = new int[tiles.length];
+	}
+
+	/**
+	 *
+	 * Opens the table of a library in a file, creating the file if it doesn't exist. No
+	 * patterns are computed until they are read.
+	 *
+	 * @param file the file holding the table
+	 * @param library the words to guess against each other
+	 * @return the table of the library
+	 * @throws IOException if the file can't be created or mapped
+	 * @throws IllegalArgumentException if the file is the table of another library or version, or
+	 * 			the words are too long for a pattern to fit in two bytes
+	 */
+	public static MappedFeedbackTable open(Path file, WordleLibrary library) throws IOException {
+
+		int wordleLength = library.wordleLength();
+		int numPatterns = WordleGame.getNumPatterns(wordleLength);
+
+		if(numPatterns > Character.MAX_VALUE + 1) {
+			throw new IllegalArgumentException("words too long for a feedback table: " + wordleLength);
+		}
+
+		int size = library.size();
+		int bytesPerPattern = numPatterns <= 256 ? 1 : 2;
+		int numTiles = (size + TILE_ROWS - 1) >>> TILE_SHIFT;
+		long rowBytes = (long) size * bytesPerPattern;
+		long dataOffset = HEADER_BYTES + (((long) numTiles * Integer.BYTES + 7) & ~7L);
+		long fingerprint = library.fingerprint();
+
+		if(rowBytes * TILE_ROWS > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("library too large for a feedback table: " + size);
+		}
+
+		MappedByteBuffer header;
+		MappedByteBuffer[] tiles = new MappedByteBuffer[numTiles];
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+			header = channel.map(FileChannel.MapMode.READ_WRITE, 0, dataOffset);
+			header.order(ByteOrder.nativeOrder());
+
+			// only one process writes the header of a new file, the others wait and check it
+			synchronized(MappedFeedbackTable.class) {
+
+				FileLock lock = channel.lock();
+
+				try {
+
+					if(header.getLong(0) == 0) {
+
+						header.putInt(8, FORMAT_VERSION).putInt(12, wordleLength).putInt(16, size)
+								.putInt(20, bytesPerPattern).putInt(24, TILE_ROWS).putInt(28, numTiles).putLong(32, fingerprint);
+
+						// extends the file without writing the patterns so it takes no space until filled
+						channel.write(ByteBuffer.allocate(1), dataOffset + rowBytes * size - 1);
+
+						header.force();
+						header.putLong(0, MAGIC);
+						header.force();
+					}
+
+				} finally {
+					lock.release();
+				}
+			}
+
+			if(header.getLong(0) != MAGIC) {
+				throw new IllegalArgumentException("not a feedback table: " + file);
+			}
+
+			if(header.getInt(8) != FORMAT_VERSION) {
+				throw new IllegalArgumentException("feedback table format " + header.getInt(8) + " isn't " + FORMAT_VERSION + ": " + file);
+			}
+
+			if(header.getInt(12) != wordleLength || header.getInt(16) != size || header.getInt(20) != bytesPerPattern
+					|| header.getInt(24) != TILE_ROWS || header.getLong(32) != fingerprint) {
+				throw new IllegalArgumentException("feedback table is of a different library: " + file);
+			}
+
+			for(int tile = 0; tile < numTiles; tile++) {
+
+				int rows = Math.min(TILE_ROWS, size - (tile << TILE_SHIFT));
+				tiles[tile] = channel.map(FileChannel.MapMode.READ_WRITE, dataOffset + (tile << TILE_SHIFT) * rowBytes, rows * rowBytes);
+				tiles[tile].order(ByteOrder.nativeOrder());
+			}
+		}
+
+		return new MappedFeedbackTable(library, bytesPerPattern, header, tiles);
+	}
+
+	/**
+	 *
+	 * Names the file of the table of a library, so every process using the same words opens the
+	 * same file.
+	 *
+	 * @param library the library of the table
+	 * @return the name of the file
+	 */
+	public static String fileName(WordleLibrary library) {
+
+		return "feedback-" + library.wordleLength() + "-" + library.size() + "-" + Long.toHexString(library.fingerprint()) + ".table";
+	}
+
+	public int pattern(int guess, int answer) {
+
+		int tile = guess >>> TILE_SHIFT;
+
+		if((int) READY.getAcquire(this.ready, tile) == 0) {
+			this.fillTile(tile);
+		}
+
+		int cell = (guess & TILE_MASK) * this.size + answer;
+
+		return this.bytesPerPattern == 1 ? this.tiles[tile].get(cell) & 0xFF : this.tiles[tile].getChar(cell << 1);
+	}
+
+	/**
+	 *
+	 * Fills a tile unless this or another process already has.
+	 *
+	 */
+	private void fillTile(int tile) {
+
+		MappedByteBuffer rows = this.tiles[tile];
+
+		synchronized(rows) {
+
+			if((int) READY.getAcquire(this.ready, tile) != 0) {
+				return;
+			}
+
+			int flag = HEADER_BYTES + tile * Integer.BYTES;
+
+			if((int) FLAG.getAcquire(this.header, flag) == 0) {
+
+				int first = tile << TILE_SHIFT;
+				int last = Math.min(this.size, first + TILE_ROWS);
+				int cell = 0;
+
+				for(int guess = first; guess < last; guess++) {
+
+					String guessWord = this.library.word(guess);
+
+					for(int answer = 0; answer < this.size; answer++, cell++) {
+
+						int pattern = WordleGame.getPattern(guessWord, this.library.word(answer));
+
+						if(this.bytesPerPattern == 1) {
+							rows.put(cell, (byte) pattern);
+						} else {
+							rows.putChar(cell << 1, (char) pattern);
+						}
+					}
+				}
+
+				FLAG.setRelease(this.header, flag, 1);
+			}
+
+			READY.setRelease(this.ready, tile, 1);
+		}
+	}
+
+	/**
+	 *
+	 * Fills every tile that hasn't been filled, in parallel.
+	 *
+	 */
+	public void fill() { IntStream.range(0, this.tiles.length).parallel().forEach(this::fillTile); }
+
+	/**
+	 *
+	 * The number of tiles this process has read, whether it filled them or another did.
+	 *
+	 * @return int of the tiles ready to read
+	 */
+	public int readyTiles() {
+
+		int count = 0;
+		for(int tile = 0; tile < this.ready.length; tile++) {
+			count += (int) READY.getAcquire(this.ready, tile);
+		}
+
+		return count;
+	}
+
+	/**
+	 *
+	 * Writes every filled tile to the disk so it outlasts a crash of the machine.
+	 *
+	 */
+	public void force() {
+
+		for(MappedByteBuffer rows : this.tiles) {
+			rows.force();
+		}
+		this.header.force();
+	}
+
+	public WordleLibrary library() { return this.library; }
+
+	public String toString() { return "MappedFeedbackTable of " + this.library + ", " + this.readyTiles() + "/" + this.tiles.length + " tiles ready"; }
+}
@@ -0,0 +1,199 @@
+package wordlejava;
+
+import java.io.*;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ *
+ * Scores every word of a WordleLibrary as the first guess against every answer in its answer
+ * pool. Each guess splits the answers into buckets by the pattern they would give, and from
+ * the buckets three scores are kept: the expected number of answers left after the guess, the
+ * entropy of the patterns in bits and the size of the largest bucket. Every answer is counted
+ * as equally likely, as in the answer list of the NYT game.
+ *
+ * Guesses are scored in parallel. Patterns are read from a FeedbackTable of the library when
+ * one is given so the whole sweep is a scan over the table.
+ *
+ * @author johnmatthew
+ *
+ */
+public class OpenerLeaderboard {
+
+	/**
+	 *
+	 * What the leaderboard is sorted by. Ties are broken by the other scores in order and then
+	 * by the order of the library.
+	 *
+	 */
+	public enum Metric {
+
+		/** Fewest answers left on average first. */
+		EXPECTED_REMAINING,
+
+		/** Most bits of information first. */
+		ENTROPY,
+
+		/** Smallest largest bucket first. */
+		WORST_CASE
+	}
+
+	private final WordleLibrary library;
+	private final double[] expectedRemaining;
+	private final double[] entropy;
+	private final int[] worstCase;
+
+	/**
+	 *
+	 * Scores every word of a library against its answer pool.
+	 *
+	 * @param library the words to score and the answers to score them against
+	 * @param feedbackTable patterns of the library. null to compute every pattern
+	 * @throws IllegalArgumentException if the table isn't of the library
+	 */
+	public OpenerLeaderboard(WordleLibrary library, FeedbackTable feedbackTable) {
+
+		if(feedbackTable != null && feedbackTable.library() != library) {
+			throw new IllegalArgumentException("feedback table is of another library");
+		}
+
+		this.library = library;
+		this.expectedRemaining = new double[library.size()];
+		this.entropy = new double[library.size()];
+		this.worstCase = new int[library.size()];
+
+		int numPatterns = WordleGame.getNumPatterns(library.wordleLength());
+
+		IntStream.range(0, library.size()).parallel().forEach(guess -> this.score(guess, new int[numPatterns], feedbackTable));
+	}
+
+	/**
+	 *
+	 * Buckets the answers by their pattern against a guess and keeps the scores of the buckets.
+	 *
+	 */
+	private void score(int guess, int[] buckets, FeedbackTable feedbackTable) {
+
+		int answers = this.library.answerCount();
+		String guessWord = this.library.word(guess);
+
+		for(int answer = 0; answer < answers; answer++) {
+
+			int pattern = feedbackTable != null ? feedbackTable.pattern(guess, answer)
+					: WordleGame.getPattern(guessWord, this.library.word(answer));
+			buckets[pattern]++;
+		}
+
+		long sumOfSquares = 0;
+		double bits = 0;
+		int largest = 0;
+
+		for(int n : buckets) {
+
+			if(n == 0) {
+				continue;
+			}
+
+			double p = (double) n / answers;
+
+			sumOfSquares += (long) n * n;
+			bits -= p * Math.log(p) / Math.log(2);
+			largest = Math.max(largest, n);
+		}
+
+		this.expectedRemaining[guess] = (double) sumOfSquares / answers;
+		this.entropy[guess] = bits;
+		this.worstCase[guess] = largest;
+	}
+
+	/**
+	 *
+	 * Sorts every guess of the library from best to worst.
+	 *
+	 * @param metric what to sort by
+	 * @return indexes of the guesses in the library, best first
+	 */
+	public int[] rank(Metric metric) {
+
+		Comparator<Integer> expected = (a, b) -> Double.compare(this.expectedRemaining[a], this.expectedRemaining[b]);
+		Comparator<Integer> bits = (a, b) -> Double.compare(this.entropy[b], this.entropy[a]);
+		Comparator<Integer> worst = (a, b) -> Integer.compare(this.worstCase[a], this.worstCase[b]);
+
+		Comparator<Integer> order;
+		switch(metric) {
+			case ENTROPY:
+				order = bits.thenComparing(expected).thenComparing(worst);
+				break;
+			case WORST_CASE:
+				order = worst.thenComparing(expected).thenComparing(bits);
+				break;
+			default:
+				order = expected.thenComparing(bits).thenComparing(worst);
+		}
+
+		// stable sort keeps the order of the library for full ties
+		Integer[] guesses = new Integer[this.library.size()];
+		for(int i = 0; i < guesses.length; i++) {
+			guesses[i] = i;
+		}
+		Arrays.sort(guesses, order);
+
+		int[] ranked = new int[guesses.length];
+		for(int i = 0; i < ranked.length; i++) {
+			ranked[i] = guesses[i];
+		}
+
+		return ranked;
+	}
+
+	/**
+	 *
+	 * The expected number of answers left after a guess.
+	 *
+	 * @param guess index of the guess in the library
+	 * @return average size of the bucket of an answer
+	 */
+	public double expectedRemaining(int guess) { return this.expectedRemaining[guess]; }
+
+	/**
+	 *
+	 * The entropy of the patterns of a guess.
+	 *
+	 * @param guess index of the guess in the library
+	 * @return bits of information expected from the guess
+	 */
+	public double entropy(int guess) { return this.entropy[guess]; }
+
+	/**
+	 *
+	 * The most answers that can be left after a guess.
+	 *
+	 * @param guess index of the guess in the library
+	 * @return size of the largest bucket
+	 */
+	public int worstCase(int guess) { return this.worstCase[guess]; }
+
+	/**
+	 *
+	 * Writes the leaderboard as tab separated lines with a header: the rank, the guess, its
+	 * expected remaining answers, its entropy and its worst case.
+	 *
+	 * @param out where to write
+	 * @param metric what to sort by
+	 * @param limit the most guesses to write
+	 * @throws IOException if writing fails
+	 */
+	public void writeReport(Writer out, Metric metric, int limit) throws IOException {
+
+		int[] ranked = this.rank(metric);
+
+		out.write("rank\tguess\texpected_remaining\tentropy_bits\tworst_case\n");
+
+		for(int i = 0; i < Math.min(limit, ranked.length); i++) {
+
+			int guess = ranked[i];
+			out.write(String.format("%d\t%s\t%.3f\t%.4f\t%d%n", i + 1, this.library.word(guess),
+					this.expectedRemaining[guess], this.entropy[guess], this.worstCase[guess]));
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package wordlejava;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ *
+ * Answers a stream of SolverService queries, one per line, so other tools can drive the solver
+ * through a pipe instead of launching a process or making a request for every game. Each line is
+ * a history written the same way as the history of a /next request:
+ *
+ * 		crane:02001,split:00210
+ *
+ * and is answered with a line holding the next guess and the number of remaining words separated
+ * by a tab. An empty line is the start of a game. A line that isn't a valid history is answered
+ * with "error" and the reason so every answer stays on the line of its query.
+ *
+ * Lines are read in chunks that are answered on a pool of threads while more are read, and the
+ * answers are written in the order of the queries, holding only a bounded number of chunks at
+ * once. Answers are flushed whenever no more input is waiting, so a tool that writes a query and
+ * waits for the answer is never left waiting on a full buffer.
+ *
+ * @author johnmatthew
+ *
+ */
+public class QueryPipeline {
+
+	/**
+	 * Most lines answered by one task.
+	 */
+	public static final int CHUNK_LINES = 256;
+
+	private final SolverService service;
+	private final int wordleLength;
+	private final GuessStrategy strategy;
+
+	/**
+	 *
+	 * Creates a pipeline answering from a service.
+	 *
+	 * @param service the service to answer from
+	 * @param wordleLength the length of the wordle of every query
+	 * @param strategy the logic used to pick each guess
+	 */
+	public QueryPipeline(SolverService service, int wordleLength, GuessStrategy strategy) {
+
+		this.service = service;
+		this.wordleLength = wordleLength;
+		this.strategy = strategy;
+	}
+
+	/**
+	 *
+	 * Answers every line of the input until it ends.
+	 *
+	 * @param in reader of the queries
+	 * @param out where the answers are written
+	 * @param threads the number of chunks answered at once
+	 * @param maxInFlight the most chunks read ahead of the answers
+	 * @return totals of the queries answered
+	 * @throws IOException if reading or writing fails
+	 * @throws InterruptedException if interrupted while waiting for a chunk
+	 */
+	public Summary run(BufferedReader in, Writer out, int threads, int maxInFlight) throws IOException, InterruptedException {
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads, SolverThreads.daemonThreads());
+		ArrayDeque<Future<Chunk>> pending = new ArrayDeque<>();
+		Summary summary = new Summary();
+
+		try {
+
+			String[] lines;
+			while((lines = readChunk(in)) != null) {
+
+				String[] queries = lines;
+				pending.add(pool.submit(() -> this.answer(queries)));
+
+				if(pending.size() >= maxInFlight) {
+					write(pending.poll(), out, summary);
+				}
+
+				// the caller may be waiting on these answers before it writes more
+				if(!in.ready()) {
+
+					while(!pending.isEmpty()) {
+						write(pending.poll(), out, summary);
+					}
+					out.flush();
+				}
+			}
+
+			while(!pending.isEmpty()) {
+				write(pending.poll(), out, summary);
+			}
+			out.flush();
+
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return summary;
+	}
+
+	/**
+	 *
+	 * Reads up to CHUNK_LINES lines, stopping early rather than wait for more input.
+	 *
+	 * @return the lines read. null if the input has ended
+	 */
+	private static String[] readChunk(BufferedReader in) throws IOException {
+
+		String first = in.readLine();
+		if(first == null) {
+			return null;
+		}
+
+		ArrayList<String> lines = new ArrayList<>(CHUNK_LINES);
+		lines.add(first);
+
+		String line;
+		while(lines.size() < CHUNK_LINES && in.ready() && (line = in.readLine()) != null) {
+			lines.add(line);
+		}
+
+		return lines.toArray(new String[0]);
+	}
+
+	/**
+	 *
+	 * Answers every query of a chunk into one block of text.
+	 *
+	 */
+	private Chunk answer(String[] queries) {
+
+		StringBuilder answers = new StringBuilder(queries.length * 16);
+		int errors = 0;
+
+		for(String query : queries) {
+
+			try {
+
+				GuessHistory history = GuessHistory.parse(query, this.wordleLength);
+				answers.append(this.service.nextGuess(this.wordleLength, history, this.strategy, Long.MAX_VALUE));
+
+			} catch (IllegalArgumentException e) {
+
+				answers.append("error\t").append(e.getMessage());
+				errors++;
+			}
+
+			answers.append('\n');
+		}
+
+		return new Chunk(answers, queries.length, errors);
+	}
+
+	private static void write(Future<Chunk> future, Writer out, Summary summary) throws IOException, InterruptedException {
+
+		Chunk chunk;
+
+		try {
+			chunk = future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+
+		out.append(chunk.answers);
+		summary.queries += chunk.queries;
+		summary.errors += chunk.errors;
+	}
+
+	/**
+	 *
+	 * Totals of the queries of a run.
+	 *
+	 */
+	public static final class Summary {
+
+		private long queries;
+		private long errors;
+
+		/**
+		 *
+		 * The number of lines answered.
+		 *
+		 * @return long of the queries
+		 */
+		public long queries() { return this.queries; }
+
+		/**
+		 *
+		 * The number of lines that weren't valid histories.
+		 *
+		 * @return long of the errors
+		 */
+		public long errors() { return this.errors; }
+
+		public String toString() { return "queries=" + this.queries + " errors=" + this.errors; }
+	}
+
+	/**
+	 *
+	 * The answers of a chunk of queries.
+	 *
+	 */
+	private static final class Chunk {
+
+		private final StringBuilder answers;
+		private final int queries;
+		private final int errors;
+
+		private Chunk(StringBuilder answers, int queries, int errors) {
+
+			this.answers = answers;
+			this.queries = queries;
+			this.errors = errors;
+		}
+	}
+}
@@ -0,0 +1,429 @@
+package wordlejava;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ *
+ * Replays finished games from their WordleRecords and scores every guess that was made. For
+ * each guess it reports the number of words that could still be the wordle before and after
+ * the guess, the bits of information the result actually gave, the bits the guess was expected
+ * to give and the gap to the best guess at that point. Bits are weighted by the priors of the
+ * library, so ruling out words that can't be the answer gives none.
+ *
+ * The best guess is the one the ENTROPY strategy picks from the remaining words, and every guess
+ * is scored the same way, so the gap is how many bits were given up by not playing it. A guess
+ * that isn't one of the remaining words can split them better than any of them, so gaps can be
+ * negative.
+ *
+ * Archives of records are analyzed in parallel while being read, holding only a bounded number
+ * of records at once, and the report is written in the order of the archive.
+ *
+ * @author johnmatthew
+ *
+ */
+public class ReplayAnalyzer {
+
+	/**
+	 * Most best guesses remembered before the memo is cleared.
+	 */
+	public static final int MAX_MEMOS = 4096;
+
+	private final WordleLibrary library;
+	private final FeedbackTable feedbackTable;
+	private final ConcurrentHashMap<CandidateSet, Turn> best;
+
+	/**
+	 *
+	 * Creates an analyzer of games played on a library.
+	 *
+	 * @param library the words that could be guessed and their priors
+	 * @param feedbackTable patterns of the library. null to compute every pattern
+	 */
+	public ReplayAnalyzer(WordleLibrary library, FeedbackTable feedbackTable) {
+
+		this.library = library;
+		this.feedbackTable = feedbackTable;
+		this.best = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 *
+	 * Replays a game and scores each of its guesses.
+	 *
+	 * @param record the finished game
+	 * @return a Turn for each guess in the order they were made
+	 * @throws IllegalArgumentException if a guess or the wordle isn't a valid word of the length
+	 */
+	public List<Turn> analyze(WordleRecord record) {
+
+		String wordle = record.getWordle();
+		int wordleLength = this.library.wordleLength();
+
+		if(!WordleGame.isValidWordleGuess(wordle, wordleLength)) {
+			throw new IllegalArgumentException("invalid wordle: " + wordle);
+		}
+
+		GuessManager guessManager = this.newGuessManager();
+		ArrayList<Turn> turns = new ArrayList<>();
+
+		for(String guess : record.getGuesses()) {
+
+			if(!WordleGame.isValidWordleGuess(guess, wordleLength)) {
+				throw new IllegalArgumentException("invalid guess: " + guess);
+			}
+
+			int before = guessManager.size();
+			if(before == 0) {
+				break;
+			}
+
+			double weightBefore = guessManager.remainingWeight();
+
+			Turn best = this.best(guessManager);
+			double expectedBits = guessManager.score(guess);
+
+			int pattern = WordleGame.getPattern(guess, wordle);
+			int[] results = new int[wordleLength];
+			for(int i = 0; i < wordleLength; i++) {
+				results[i] = pattern % 3;
+				pattern /= 3;
+			}
+
+			guessManager.refineLibrary(guess.toCharArray(), results);
+			int after = guessManager.size();
+			double weightAfter = guessManager.remainingWeight();
+
+			// bits are measured with the priors score() weighs the words by, and by counting words
+			// when score() counts them too or the wordle had no prior
+			double bitsGained = weightBefore > 0 && weightAfter > 0 ? Math.log(weightBefore / weightAfter) / Math.log(2)
+					: Math.log((double) before / Math.max(1, after)) / Math.log(2);
+
+			turns.add(new Turn(guess, before, after, bitsGained, expectedBits, best.bestGuess, best.bestBits));
+		}
+
+		return turns;
+	}
+
+	/**
+	 *
+	 * Finds the guess ENTROPY picks from the remaining words, remembering it for each set of
+	 * remaining words since every game begins the same way.
+	 *
+	 * @param guessManager the game at the point of the guess
+	 * @return a Turn holding only the best guess and its expected bits
+	 */
+	private Turn best(GuessManager guessManager) {
+
+		CandidateSet candidates = guessManager.candidates();
+		Turn best = this.best.get(candidates);
+
+		if(best == null) {
+
+			String guess = guessManager.getNextWord();
+			best = new Turn(guess, 0, 0, 0, 0, guess, guessManager.score(guess));
+
+			if(this.best.size() >= MAX_MEMOS) {
+				this.best.clear();
+			}
+			this.best.put(candidates, best);
+		}
+
+		return best;
+	}
+
+	private GuessManager newGuessManager() {
+
+		GuessManager guessManager = new GuessManager(this.library);
+		guessManager.setStrategy(GuessStrategy.ENTROPY);
+		guessManager.setFeedbackTable(this.feedbackTable);
+
+		return guessManager;
+	}
+
+	/**
+	 *
+	 * Reads an archive of records, one per line as written by WordleRecord.toString(), and
+	 * writes a tab separated line for each guess with a header. Lines that aren't records, such
+	 * as the tally printed by main, are skipped. At most maxInFlight records are held at once.
+	 *
+	 * @param in reader of the archive
+	 * @param out where the report is written
+	 * @param threads the number of records analyzed at once
+	 * @param maxInFlight the most records read ahead of the report
+	 * @return totals of every record analyzed
+	 * @throws IOException if reading or writing fails
+	 * @throws InterruptedException if interrupted while waiting for a record
+	 */
+	public Summary analyzeAll(BufferedReader in, Writer out, int threads, int maxInFlight) throws IOException, InterruptedException {
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads, SolverThreads.daemonThreads());
+		ArrayDeque<Future<Replay>> pending = new ArrayDeque<>();
+		Summary summary = new Summary();
+
+		// every game begins by finding the same best guess so find it once up front
+		this.best(this.newGuessManager());
+
+		out.write("record\twordle\tturn\tguess\tbefore\tafter\tbits_gained\texpected_bits\tbest_guess\tbest_bits\tgap\n");
+
+		try {
+
+			long lineNumber = 0;
+			String line;
+
+			while((line = in.readLine()) != null) {
+
+				long number = ++lineNumber;
+				String recordLine = line;
+
+				if(recordLine.isBlank()) {
+					continue;
+				}
+
+				pending.add(pool.submit(() -> this.replay(number, recordLine)));
+
+				if(pending.size() >= maxInFlight) {
+					write(pending.poll(), out, summary);
+				}
+			}
+
+			while(!pending.isEmpty()) {
+				write(pending.poll(), out, summary);
+			}
+
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return summary;
+	}
+
+	private Replay replay(long lineNumber, String line) {
+
+		try {
+
+			WordleRecord record = WordleRecord.parse(line);
+
+			return new Replay(lineNumber, record, this.analyze(record));
+
+		} catch (IllegalArgumentException e) {
+
+			return new Replay(lineNumber, null, null);
+		}
+	}
+
+	private static void write(Future<Replay> future, Writer out, Summary summary) throws IOException, InterruptedException {
+
+		Replay replay;
+
+		try {
+			replay = future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+
+		if(replay.turns == null) {
+			summary.skipped++;
+			return;
+		}
+
+		summary.add(replay.record, replay.turns);
+
+		for(int i = 0; i < replay.turns.size(); i++) {
+			out.write(replay.lineNumber + "\t" + replay.record.getWordle() + "\t" + (i + 1) + "\t" + replay.turns.get(i) + "\n");
+		}
+	}
+
+	/**
+	 *
+	 * The scores of a single guess.
+	 *
+	 */
+	public static final class Turn {
+
+		private final String guess;
+		private final int before;
+		private final int after;
+		private final double bitsGained;
+		private final double expectedBits;
+		private final String bestGuess;
+		private final double bestBits;
+
+		Turn(String guess, int before, int after, double bitsGained, double expectedBits, String bestGuess, double bestBits) {
+
+			this.guess = guess;
+			this.before = before;
+			this.after = after;
+			this.bitsGained = bitsGained;
+			this.expectedBits = expectedBits;
+			this.bestGuess = bestGuess;
+			this.bestBits = bestBits;
+		}
+
+		/**
+		 *
+		 * The word that was guessed.
+		 *
+		 * @return the guess
+		 */
+		public String guess() { return this.guess; }
+
+		/**
+		 *
+		 * The number of words that could be the wordle before the guess.
+		 *
+		 * @return int of the remaining words
+		 */
+		public int before() { return this.before; }
+
+		/**
+		 *
+		 * The number of words that could be the wordle after the result of the guess.
+		 *
+		 * @return int of the remaining words
+		 */
+		public int after() { return this.after; }
+
+		/**
+		 *
+		 * The bits of information the result gave, from how many words it ruled out.
+		 *
+		 * @return log2 of the remaining words before over after
+		 */
+		public double bitsGained() { return this.bitsGained; }
+
+		/**
+		 *
+		 * The bits of information the guess was expected to give.
+		 *
+		 * @return the entropy of the results of the guess
+		 */
+		public double expectedBits() { return this.expectedBits; }
+
+		/**
+		 *
+		 * The guess ENTROPY would have made.
+		 *
+		 * @return the best guess
+		 */
+		public String bestGuess() { return this.bestGuess; }
+
+		/**
+		 *
+		 * The bits of information the best guess was expected to give.
+		 *
+		 * @return the entropy of the results of the best guess
+		 */
+		public double bestBits() { return this.bestBits; }
+
+		/**
+		 *
+		 * The expected bits given up by not making the best guess.
+		 *
+		 * @return bestBits() less expectedBits()
+		 */
+		public double gap() { return this.bestBits - this.expectedBits; }
+
+		public String toString() {
+
+			return String.format("%s\t%d\t%d\t%.4f\t%.4f\t%s\t%.4f\t%.4f", this.guess, this.before, this.after,
+					this.bitsGained, this.expectedBits, this.bestGuess, this.bestBits, this.gap());
+		}
+	}
+
+	/**
+	 *
+	 * Totals of the records of an archive and the average scores of the guesses of each turn.
+	 *
+	 */
+	public static final class Summary {
+
+		private long records;
+		private long wins;
+		private long skipped;
+		private long[] guesses = new long[WordleGame.STANDARD_GUESSES];
+		private double[] bitsGained = new double[WordleGame.STANDARD_GUESSES];
+		private double[] gap = new double[WordleGame.STANDARD_GUESSES];
+
+		private void add(WordleRecord record, List<Turn> turns) {
+
+			this.records++;
+			if(record.isWin()) {
+				this.wins++;
+			}
+
+			if(turns.size() > this.guesses.length) {
+				this.guesses = Arrays.copyOf(this.guesses, turns.size());
+				this.bitsGained = Arrays.copyOf(this.bitsGained, turns.size());
+				this.gap = Arrays.copyOf(this.gap, turns.size());
+			}
+
+			for(int i = 0; i < turns.size(); i++) {
+				this.guesses[i]++;
+				this.bitsGained[i] += turns.get(i).bitsGained();
+				this.gap[i] += turns.get(i).gap();
+			}
+		}
+
+		/**
+		 *
+		 * The number of records analyzed.
+		 *
+		 * @return long of the records
+		 */
+		public long records() { return this.records; }
+
+		/**
+		 *
+		 * The number of lines that weren't valid records.
+		 *
+		 * @return long of the skipped lines
+		 */
+		public long skipped() { return this.skipped; }
+
+		/**
+		 *
+		 * The average gap to the best guess of the guesses of a turn.
+		 *
+		 * @param turn the turn counting from 1
+		 * @return the average gap in bits. 0 if no game reached the turn
+		 */
+		public double averageGap(int turn) {
+
+			return turn > this.guesses.length || this.guesses[turn - 1] == 0 ? 0 : this.gap[turn - 1] / this.guesses[turn - 1];
+		}
+
+		public String toString() {
+
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("records=%d wins=%d skipped=%d%n", this.records, this.wins, this.skipped));
+
+			for(int i = 0; i < this.guesses.length && this.guesses[i] > 0; i++) {
+				sb.append(String.format("turn %d: guesses=%d bitsGained=%.4f gap=%.4f%n", i + 1, this.guesses[i],
+						this.bitsGained[i] / this.guesses[i], this.gap[i] / this.guesses[i]));
+			}
+
+			return sb.toString();
+		}
+	}
+
+	/**
+	 *
+	 * A record of an archive and its turns. Turns are null if the line wasn't a valid record.
+	 *
+	 */
+	private static final class Replay {
+
+		private final long lineNumber;
+		private final WordleRecord record;
+		private final List<Turn> turns;
+
+		private Replay(long lineNumber, WordleRecord record, List<Turn> turns) {
+
+			this.lineNumber = lineNumber;
+			this.record = record;
+			this.turns = turns;
+		}
+	}
+}
@@ -0,0 +1,374 @@
+package wordlejava;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * Splits a sweep of every answer of a library under one or more strategies into shards and
+ * hands them out to ShardWorker processes it launches on the same machine. Workers connect back
+ * over the loopback address and stream the result of each game, and the coordinator merges them
+ * into a tally and a latency histogram for each strategy.
+ *
+ * Results of a shard are only merged once the worker finishes it. If a worker dies or sends
+ * something unexpected its shard is handed to another worker and a replacement process is
+ * started, up to a limit.
+ *
+ * @author johnmatthew
+ *
+ */
+public class ShardCoordinator {
+
+	/**
+	 * Longest a worker may go without sending a line before it is treated as dead.
+	 */
+	public static int WORKER_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+	private final WordleLibrary library;
+	private final List<String> workerCommand;
+	private final LinkedBlockingDeque<Shard> queue;
+	private final Map<GuessStrategy, Totals> totals;
+	private final ConcurrentHashMap<Long, Process> processes;
+	private final AtomicInteger deaths;
+	private CountDownLatch remaining;
+
+	/**
+	 *
+	 * Creates a coordinator. Workers are started with the command followed by the port to
+	 * connect to.
+	 *
+	 * @param library the words the workers solve with. Workers with a different size are turned away
+	 * @param workerCommand the command starting a worker process, without the port
+	 */
+	public ShardCoordinator(WordleLibrary library, List<String> workerCommand) {
+
+		this.library = library;
+		this.workerCommand = new ArrayList<>(workerCommand);
+		this.queue = new LinkedBlockingDeque<>();
+		this.totals = new EnumMap<>(GuessStrategy.class);
+		this.processes = new ConcurrentHashMap<>();
+		this.deaths = new AtomicInteger();
+	}
+
+	/**
+	 *
+	 * Splits the answer pool into shards for each strategy.
+	 *
+	 * @param strategies the strategies to sweep
+	 * @param answers the number of answers to sweep, from the start of the answer pool
+	 * @param shardSize the most answers in a shard
+	 * @return the shards in order
+	 */
+	public static List<Shard> shards(GuessStrategy[] strategies, int answers, int shardSize) {
+
+		ArrayList<Shard> shards = new ArrayList<>();
+
+		for(GuessStrategy strategy : strategies) {
+			for(int start = 0; start < answers; start += shardSize) {
+				shards.add(new Shard(shards.size(), strategy, start, Math.min(answers, start + shardSize)));
+			}
+		}
+
+		return shards;
+	}
+
+	/**
+	 *
+	 * Solves every shard on worker processes and waits for all of them to finish.
+	 *
+	 * @param shards the shards to solve
+	 * @param workers the number of worker processes to keep running
+	 * @param maxRestarts the most replacement workers started after deaths
+	 * @return the totals of each strategy
+	 * @throws IOException if the coordinator can't listen or start a worker
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws IllegalStateException if every worker died and no more can be started
+	 */
+	public Map<GuessStrategy, Totals> run(List<Shard> shards, int workers, int maxRestarts) throws IOException, InterruptedException {
+
+		this.queue.addAll(shards);
+		this.remaining = new CountDownLatch(shards.size());
+
+		for(Shard shard : shards) {
+			this.totals.putIfAbsent(shard.strategy, new Totals(shard.strategy));
+		}
+
+		ExecutorService connections = SolverThreads.newPerTaskExecutor();
+		List<Process> started = new ArrayList<>();
+
+		try (ServerSocket serverSocket = new ServerSocket(0, 64, InetAddress.getLoopbackAddress())) {
+
+			Thread acceptor = new Thread(() -> {
+
+				while(!serverSocket.isClosed()) {
+
+					try {
+						Socket socket = serverSocket.accept();
+						connections.execute(() -> this.serve(socket));
+					} catch (IOException e) {
+						// closed once every shard is done
+					}
+				}
+			}, "ShardCoordinator-acceptor");
+			acceptor.setDaemon(true);
+			acceptor.start();
+
+			for(int i = 0; i < workers; i++) {
+				started.add(this.launch(serverSocket.getLocalPort()));
+			}
+
+			int restarts = 0;
+
+			while(!this.remaining.await(100, TimeUnit.MILLISECONDS)) {
+
+				long alive = started.stream().filter(Process::isAlive).count();
+
+				for(long i = alive; i < workers && restarts < maxRestarts; i++) {
+					started.add(this.launch(serverSocket.getLocalPort()));
+					restarts++;
+				}
+
+				if(restarts >= maxRestarts && started.stream().noneMatch(Process::isAlive)) {
+					throw new IllegalStateException("every worker died with " + this.remaining.getCount() + " shards left");
+				}
+			}
+
+		} finally {
+
+			connections.shutdown();
+			connections.awaitTermination(5, TimeUnit.SECONDS);
+
+			for(Process process : started) {
+				process.destroy();
+			}
+		}
+
+		return this.totals;
+	}
+
+	/**
+	 *
+	 * Starts a worker process sharing the console of the coordinator.
+	 *
+	 */
+	private Process launch(int port) throws IOException {
+
+		List<String> command = new ArrayList<>(this.workerCommand);
+		command.add(Integer.toString(port));
+
+		Process process = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+				.redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		this.processes.put(process.pid(), process);
+
+		return process;
+	}
+
+	/**
+	 *
+	 * Hands shards to one worker until none are left, putting back the shard it was on if it
+	 * fails.
+	 *
+	 */
+	private void serve(Socket socket) {
+
+		Shard shard = null;
+		long pid = -1;
+
+		try (socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), 1 << 16);
+				BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+
+			socket.setSoTimeout(WORKER_TIMEOUT_MILLIS);
+
+			String[] hello = readCommand(in);
+			if(!hello[0].equals("HELLO") || hello.length != 3) {
+				throw new IOException("expected HELLO");
+			}
+
+			pid = Long.parseLong(hello[1]);
+			if(Integer.parseInt(hello[2]) != this.library.size()) {
+				throw new IOException("worker " + pid + " has a library of " + hello[2] + " words");
+			}
+
+			while(true) {
+
+				shard = this.queue.poll(100, TimeUnit.MILLISECONDS);
+
+				if(shard == null) {
+
+					if(this.remaining.getCount() == 0) {
+						out.write("QUIT\n");
+						out.flush();
+						return;
+					}
+
+					continue;
+				}
+
+				out.write("SHARD " + shard.id + " " + shard.strategy + " " + shard.start + " " + shard.end + "\n");
+				out.flush();
+
+				this.collect(shard, in);
+				shard = null;
+			}
+
+		} catch (IOException | InterruptedException | RuntimeException e) {
+
+			if(shard != null) {
+				this.queue.addFirst(shard);
+			}
+
+			this.deaths.incrementAndGet();
+
+			Process process = this.processes.get(pid);
+			if(process != null) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Reads the games of a shard until DONE and merges them into the totals of its strategy.
+	 *
+	 */
+	private void collect(Shard shard, BufferedReader in) throws IOException {
+
+		int size = shard.end - shard.start;
+		int[] winIndexes = new int[size];
+		long[] nanos = new long[size];
+		boolean[] seen = new boolean[size];
+
+		while(true) {
+
+			String[] command = readCommand(in);
+
+			if(command[0].equals("DONE") && command.length == 2 && Integer.parseInt(command[1]) == shard.id) {
+				break;
+			}
+
+			if(!command[0].equals("GAME") || command.length != 5 || Integer.parseInt(command[1]) != shard.id) {
+				throw new IOException("unexpected line from worker: " + String.join(" ", command));
+			}
+
+			int i = Integer.parseInt(command[2]) - shard.start;
+			winIndexes[i] = Integer.parseInt(command[3]);
+			nanos[i] = Long.parseLong(command[4]);
+			seen[i] = true;
+		}
+
+		for(boolean b : seen) {
+			if(!b) {
+				throw new IOException("shard " + shard.id + " finished without every game");
+			}
+		}
+
+		Totals strategyTotals = this.totals.get(shard.strategy);
+		synchronized(strategyTotals) {
+			for(int i = 0; i < size; i++) {
+				strategyTotals.add(winIndexes[i], nanos[i]);
+			}
+		}
+
+		this.remaining.countDown();
+	}
+
+	private static String[] readCommand(BufferedReader in) throws IOException {
+
+		String line = in.readLine();
+		if(line == null) {
+			throw new EOFException("worker disconnected");
+		}
+
+		return line.trim().split("\\s+");
+	}
+
+	/**
+	 *
+	 * The number of workers that died or were turned away.
+	 *
+	 * @return int of the worker deaths
+	 */
+	public int deaths() { return this.deaths.get(); }
+
+	/**
+	 *
+	 * A range of answers to solve with one strategy.
+	 *
+	 */
+	public static final class Shard {
+
+		private final int id;
+		private final GuessStrategy strategy;
+		private final int start;
+		private final int end;
+
+		public Shard(int id, GuessStrategy strategy, int start, int end) {
+
+			this.id = id;
+			this.strategy = strategy;
+			this.start = start;
+			this.end = end;
+		}
+
+		public String toString() { return this.id + ": " + this.strategy + " [" + this.start + ", " + this.end + ")"; }
+	}
+
+	/**
+	 *
+	 * The merged results of every game of a strategy.
+	 *
+	 */
+	public static final class Totals {
+
+		private final GuessStrategy strategy;
+		private final int[] tally;
+		private final LatencyHistogram latency;
+		private long games;
+		private long guesses;
+
+		private Totals(GuessStrategy strategy) {
+
+			this.strategy = strategy;
+			this.tally = new int[WordleGame.STANDARD_GUESSES + 1];
+			this.latency = new LatencyHistogram();
+		}
+
+		private void add(int winIndex, long nanos) {
+
+			this.tally[winIndex]++;
+			this.latency.record(nanos);
+			this.games++;
+			this.guesses += winIndex == 0 ? WordleGame.STANDARD_GUESSES : winIndex;
+		}
+
+		/**
+		 *
+		 * The number of games won on each guess, with losses counted at index 0.
+		 *
+		 * @return copy of the tally
+		 */
+		public int[] tally() { return this.tally.clone(); }
+
+		/**
+		 *
+		 * The time each game took to solve on its worker.
+		 *
+		 * @return the histogram of solve times
+		 */
+		public LatencyHistogram latency() { return this.latency; }
+
+		public String toString() {
+
+			return String.format("%s: games=%d averageGuesses=%.4f tally=%s solve p50=%dus p99=%dus", this.strategy,
+					this.games, this.games == 0 ? 0 : (double) this.guesses / this.games, Arrays.toString(this.tally),
+					this.latency.percentile(0.5) / 1000, this.latency.percentile(0.99) / 1000);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package wordlejava;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ * Solves shards of a sweep handed out by a ShardCoordinator in another process. The worker
+ * connects to the coordinator on the loopback address and they exchange one command per line:
+ *
+ * 		worker:      HELLO {pid} {library size}
+ * 		coordinator: SHARD {id} {strategy} {start} {end}
+ * 		worker:      GAME {id} {answer} {win index} {nanos}    for each answer from start to end
+ * 		worker:      DONE {id}
+ * 		coordinator: QUIT
+ *
+ * Answers are indexes into the answer pool of the library, which every process reads for itself.
+ *
+ * @author johnmatthew
+ *
+ */
+public class ShardWorker {
+
+	/**
+	 * Longest results are held before being sent, so the coordinator hears from a worker on a
+	 * long shard well within ShardCoordinator.WORKER_TIMEOUT_MILLIS.
+	 */
+	public static long FLUSH_MILLIS = 1000;
+
+	private final WordleLibrary library;
+
+	/**
+	 *
+	 * Creates a worker solving games of a library.
+	 *
+	 * @param library the words to solve with. Must be the same as the coordinator's
+	 */
+	public ShardWorker(WordleLibrary library) {
+
+		this.library = library;
+	}
+
+	/**
+	 *
+	 * Connects to a coordinator and solves shards until told to quit or disconnected.
+	 *
+	 * @param port the port of the coordinator on the loopback address
+	 * @throws IOException if the connection fails
+	 */
+	public void run(int port) throws IOException {
+
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+
+			out.write("HELLO " + ProcessHandle.current().pid() + " " + this.library.size() + "\n");
+			out.flush();
+
+			String line;
+			while((line = in.readLine()) != null) {
+
+				String[] command = line.trim().split("\\s+");
+
+				if(command[0].equals("QUIT")) {
+					return;
+				}
+
+				if(!command[0].equals("SHARD") || command.length != 5) {
+					throw new IOException("unexpected command: " + line);
+				}
+
+				this.solveShard(command[1], GuessStrategy.valueOf(command[2]), Integer.parseInt(command[3]), Integer.parseInt(command[4]), out);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Solves every answer of a shard, streaming the result of each game. Results are sent at
+	 * least every FLUSH_MILLIS instead of after every game.
+	 *
+	 */
+	private void solveShard(String id, GuessStrategy strategy, int start, int end, BufferedWriter out) throws IOException {
+
+		long flushed = System.nanoTime();
+
+		for(int answer = start; answer < end; answer++) {
+
+			long begin = System.nanoTime();
+
+			WordleGame game = new WordleGame(this.library.word(answer), WordleGame.STANDARD_GUESSES);
+			WordleRecord record = new WordleSolver(game, new LibraryView(this.library), strategy, this.library).solve();
+
+			out.write("GAME " + id + " " + answer + " " + record.getWinIndex() + " " + (System.nanoTime() - begin) + "\n");
+
+			if(System.nanoTime() - flushed >= FLUSH_MILLIS * 1000000) {
+				out.flush();
+				flushed = System.nanoTime();
+			}
+		}
+
+		out.write("DONE " + id + "\n");
+		out.flush();
+	}
+}
@@ -0,0 +1,442 @@
+package wordlejava;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ *
+ * Measures the solver on a fixed set of games so a change to GuessManager or WordleGame can be
+ * checked for slowdowns. The wordle of each game is drawn the same way as in an EvaluationBatch
+ * from a seed, so every run solves the same games. The games are solved in several rounds after
+ * some warmup rounds and each measurement is the median of the rounds, along with how far the
+ * rounds spread from it.
+ *
+ * A run is saved as a baseline file of properties holding the settings, the library it was run
+ * on and the measurements of each strategy. A later run with the settings of a baseline can be
+ * compared against it: a measurement only counts as changed if it moved by more than its
+ * threshold, which grows with the spread of the rounds of either run so noisy measurements need
+ * a larger change.
+ *
+ * @author johnmatthew
+ *
+ */
+public class SolverBenchmark {
+
+	public static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Number of spreads a measurement must move by to count as changed.
+	 */
+	public static double NOISE_FACTOR = 3;
+
+	private final WordleLibrary library;
+	private final FeedbackTable feedbackTable;
+	private final int games;
+	private final long seed;
+	private final int rounds;
+	private final int warmupRounds;
+
+	/**
+	 *
+	 * Creates a benchmark of a library.
+	 *
+	 * @param library the words to draw wordles from and solve with
+	 * @param feedbackTable patterns of the library. null to compute every pattern
+	 * @param games the number of games solved in each round
+	 * @param seed the seed the wordle of every game is derived from
+	 * @param rounds the number of measured rounds
+	 * @param warmupRounds the number of rounds solved before measuring
+	 */
+	public SolverBenchmark(WordleLibrary library, FeedbackTable feedbackTable, int games, long seed, int rounds, int warmupRounds) {
+
+		this.library = library;
+		this.feedbackTable = feedbackTable;
+		this.games = games;
+		this.seed = seed;
+		this.rounds = rounds;
+		this.warmupRounds = warmupRounds;
+	}
+
+	/**
+	 *
+	 * Creates a benchmark with the settings of a baseline, to compare against it.
+	 *
+	 * @param baseline the baseline to repeat
+	 * @param library the words the baseline was run on
+	 * @param feedbackTable patterns of the library. null to compute every pattern
+	 * @return the benchmark
+	 * @throws IllegalArgumentException if the baseline was run on a different library
+	 */
+	public static SolverBenchmark repeat(Properties baseline, WordleLibrary library, FeedbackTable feedbackTable) {
+
+		checkLibrary(baseline, library);
+
+		return new SolverBenchmark(library, feedbackTable, Integer.parseInt(baseline.getProperty("games")),
+				Long.parseLong(baseline.getProperty("seed")), Integer.parseInt(baseline.getProperty("rounds")),
+				Integer.parseInt(baseline.getProperty("warmupRounds")));
+	}
+
+	/**
+	 *
+	 * Runs every strategy and returns the settings and measurements as a baseline.
+	 *
+	 * @param strategies the strategies to measure
+	 * @return the baseline of the run
+	 */
+	public Properties run(GuessStrategy[] strategies) {
+
+		Properties baseline = new Properties();
+		baseline.setProperty("format", Integer.toString(FORMAT_VERSION));
+		baseline.setProperty("created", Instant.now().toString());
+		baseline.setProperty("java.version", System.getProperty("java.version"));
+		baseline.setProperty("os.arch", System.getProperty("os.arch"));
+		baseline.setProperty("processors", Integer.toString(Runtime.getRuntime().availableProcessors()));
+		baseline.setProperty("wordleLength", Integer.toString(this.library.wordleLength()));
+		baseline.setProperty("librarySize", Integer.toString(this.library.size()));
+		baseline.setProperty("libraryFingerprint", Long.toHexString(this.library.fingerprint()));
+		baseline.setProperty("games", Integer.toString(this.games));
+		baseline.setProperty("seed", Long.toString(this.seed));
+		baseline.setProperty("rounds", Integer.toString(this.rounds));
+		baseline.setProperty("warmupRounds", Integer.toString(this.warmupRounds));
+
+		StringJoiner names = new StringJoiner(",");
+
+		for(GuessStrategy strategy : strategies) {
+
+			names.add(strategy.name());
+
+			for(int i = 0; i < this.warmupRounds; i++) {
+				this.round(strategy);
+			}
+
+			double[][] measurements = new double[Metric.values().length][this.rounds];
+
+			for(int i = 0; i < this.rounds; i++) {
+
+				double[] round = this.round(strategy);
+				for(Metric metric : Metric.values()) {
+					measurements[metric.ordinal()][i] = round[metric.ordinal()];
+				}
+			}
+
+			for(Metric metric : Metric.values()) {
+
+				double median = median(measurements[metric.ordinal()]);
+				baseline.setProperty(key(strategy, metric), Double.toString(median));
+				baseline.setProperty(key(strategy, metric) + ".spread", Double.toString(spread(measurements[metric.ordinal()], median)));
+			}
+		}
+
+		baseline.setProperty("strategies", names.toString());
+
+		return baseline;
+	}
+
+	/**
+	 *
+	 * Solves every game once and measures the round.
+	 *
+	 * @return the measurement of each Metric by ordinal
+	 */
+	private double[] round(GuessStrategy strategy) {
+
+		LatencyHistogram latency = new LatencyHistogram();
+		long guesses = 0;
+		long allocatedBefore = GameCost.allocatedBytes();
+		long start = System.nanoTime();
+
+		for(int i = 0; i < this.games; i++) {
+
+			long begin = System.nanoTime();
+
+			WordleGame game = WordleGame.getRandomStandardGame(this.library, EvaluationBatch.gameRandom(this.seed, i));
+			WordleSolver solver = new WordleSolver(game, new LibraryView(this.library), strategy, this.library);
+			solver.guessManager().setFeedbackTable(this.feedbackTable);
+			guesses += solver.solve().getGuesses().size();
+
+			latency.record(System.nanoTime() - begin);
+		}
+
+		long elapsed = System.nanoTime() - start;
+		long allocated = GameCost.allocatedBytes() - allocatedBefore;
+
+		double[] round = new double[Metric.values().length];
+		round[Metric.THROUGHPUT.ordinal()] = this.games * 1e9 / elapsed;
+		round[Metric.LATENCY_P50.ordinal()] = latency.percentile(0.5) / 1e3;
+		round[Metric.LATENCY_P99.ordinal()] = latency.percentile(0.99) / 1e3;
+		round[Metric.ALLOCATION.ordinal()] = allocatedBefore < 0 ? 0 : (double) allocated / this.games;
+		round[Metric.AVERAGE_GUESSES.ordinal()] = (double) guesses / this.games;
+
+		return round;
+	}
+
+	private static double median(double[] values) {
+
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+
+		int middle = sorted.length / 2;
+
+		return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+	}
+
+	/**
+	 *
+	 * The median distance of the rounds from their median, relative to the median.
+	 *
+	 */
+	private static double spread(double[] values, double median) {
+
+		if(median == 0) {
+			return 0;
+		}
+
+		double[] distances = new double[values.length];
+		for(int i = 0; i < values.length; i++) {
+			distances[i] = Math.abs(values[i] - median);
+		}
+
+		return median(distances) / Math.abs(median);
+	}
+
+	private static String key(GuessStrategy strategy, Metric metric) { return strategy.name() + "." + metric.key; }
+
+	private static void checkLibrary(Properties baseline, WordleLibrary library) {
+
+		if(Integer.parseInt(baseline.getProperty("format")) != FORMAT_VERSION) {
+			throw new IllegalArgumentException("baseline format " + baseline.getProperty("format") + " isn't " + FORMAT_VERSION);
+		}
+
+		if(Integer.parseInt(baseline.getProperty("wordleLength")) != library.wordleLength()
+				|| Integer.parseInt(baseline.getProperty("librarySize")) != library.size()
+				|| Long.parseUnsignedLong(baseline.getProperty("libraryFingerprint"), 16) != library.fingerprint()) {
+			throw new IllegalArgumentException("baseline was run on a different library");
+		}
+	}
+
+	/**
+	 *
+	 * Writes a baseline with its keys sorted so baselines can be compared by eye.
+	 *
+	 * @param baseline the baseline to write
+	 * @param file the file to write
+	 * @throws IOException if writing fails
+	 */
+	public static void write(Properties baseline, Path file) throws IOException {
+
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+
+			out.write("# SolverBenchmark baseline\n");
+
+			for(String key : new TreeSet<>(baseline.stringPropertyNames())) {
+				out.write(key + "=" + baseline.getProperty(key) + "\n");
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Reads a baseline written by write().
+	 *
+	 * @param file the file to read
+	 * @return the baseline
+	 * @throws IOException if reading fails
+	 */
+	public static Properties read(Path file) throws IOException {
+
+		Properties baseline = new Properties();
+
+		try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			baseline.load(in);
+		}
+
+		return baseline;
+	}
+
+	/**
+	 *
+	 * Compares every measurement of a run against a baseline of the same settings.
+	 *
+	 * @param baseline the earlier run
+	 * @param current the later run
+	 * @return a Comparison for every measurement of every strategy in both
+	 * @throws IllegalArgumentException if the runs were made with different settings
+	 */
+	public static List<Comparison> compare(Properties baseline, Properties current) {
+
+		for(String setting : new String[] {"format", "wordleLength", "librarySize", "libraryFingerprint", "games", "seed"}) {
+
+			if(!Objects.equals(baseline.getProperty(setting), current.getProperty(setting))) {
+				throw new IllegalArgumentException("runs differ in " + setting + ": " + baseline.getProperty(setting) + " and " + current.getProperty(setting));
+			}
+		}
+
+		List<String> currentStrategies = Arrays.asList(current.getProperty("strategies").split(","));
+		ArrayList<Comparison> comparisons = new ArrayList<>();
+
+		for(String name : baseline.getProperty("strategies").split(",")) {
+
+			if(!currentStrategies.contains(name)) {
+				continue;
+			}
+
+			GuessStrategy strategy = GuessStrategy.valueOf(name);
+
+			for(Metric metric : Metric.values()) {
+
+				String key = key(strategy, metric);
+
+				comparisons.add(new Comparison(strategy, metric,
+						Double.parseDouble(baseline.getProperty(key)), Double.parseDouble(baseline.getProperty(key + ".spread")),
+						Double.parseDouble(current.getProperty(key)), Double.parseDouble(current.getProperty(key + ".spread"))));
+			}
+		}
+
+		return comparisons;
+	}
+
+	/**
+	 *
+	 * Writes a line for every comparison and a last line counting the regressions.
+	 *
+	 * @param comparisons the comparisons to report
+	 * @param out where the report is written
+	 * @return the number of regressions
+	 * @throws IOException if writing fails
+	 */
+	public static int writeReport(List<Comparison> comparisons, Writer out) throws IOException {
+
+		int regressions = 0;
+		int improvements = 0;
+
+		out.write(String.format("%-16s %-24s %14s %14s %9s %9s  %s%n", "strategy", "metric", "baseline", "current", "change", "threshold", "verdict"));
+
+		for(Comparison comparison : comparisons) {
+
+			out.write(comparison + System.lineSeparator());
+
+			if(comparison.verdict() == Verdict.REGRESSION) {
+				regressions++;
+			} else if(comparison.verdict() == Verdict.IMPROVEMENT) {
+				improvements++;
+			}
+		}
+
+		out.write(String.format("%d regressions, %d improvements%n", regressions, improvements));
+		out.flush();
+
+		return regressions;
+	}
+
+	/**
+	 *
+	 * The measurements of a run. Each can't be allowed to move less than its minimum threshold
+	 * however steady the rounds are. Average guesses don't depend on timing so any rise in them
+	 * is counted.
+	 *
+	 */
+	public enum Metric {
+
+		THROUGHPUT("throughput", "games/s", true, 0.05),
+		LATENCY_P50("latencyP50", "us", false, 0.10),
+		LATENCY_P99("latencyP99", "us", false, 0.20),
+		ALLOCATION("allocation", "bytes/game", false, 0.05),
+		AVERAGE_GUESSES("averageGuesses", "guesses", false, 0);
+
+		private final String key;
+		private final String unit;
+		private final boolean higherIsBetter;
+		private final double minThreshold;
+
+		Metric(String key, String unit, boolean higherIsBetter, double minThreshold) {
+
+			this.key = key;
+			this.unit = unit;
+			this.higherIsBetter = higherIsBetter;
+			this.minThreshold = minThreshold;
+		}
+
+		/**
+		 *
+		 * The unit the metric is measured in.
+		 *
+		 * @return the unit
+		 */
+		public String unit() { return this.unit; }
+	}
+
+	public enum Verdict { REGRESSION, IMPROVEMENT, UNCHANGED }
+
+	/**
+	 *
+	 * A measurement of a strategy in a baseline and a later run.
+	 *
+	 */
+	public static final class Comparison {
+
+		private final GuessStrategy strategy;
+		private final Metric metric;
+		private final double baseline;
+		private final double current;
+		private final double threshold;
+
+		private Comparison(GuessStrategy strategy, Metric metric, double baseline, double baselineSpread, double current, double currentSpread) {
+
+			this.strategy = strategy;
+			this.metric = metric;
+			this.baseline = baseline;
+			this.current = current;
+			this.threshold = Math.max(metric.minThreshold, NOISE_FACTOR * Math.max(baselineSpread, currentSpread));
+		}
+
+		/**
+		 *
+		 * The relative change from the baseline.
+		 *
+		 * @return the change as a fraction of the baseline. 0 if both are 0
+		 */
+		public double change() {
+
+			if(this.baseline == 0) {
+				return this.current == 0 ? 0 : Double.POSITIVE_INFINITY;
+			}
+
+			return (this.current - this.baseline) / this.baseline;
+		}
+
+		/**
+		 *
+		 * The relative change the measurement must exceed to count as changed.
+		 *
+		 * @return the threshold as a fraction of the baseline
+		 */
+		public double threshold() { return this.threshold; }
+
+		/**
+		 *
+		 * Whether the measurement got worse, better or neither by more than its threshold.
+		 *
+		 * @return the verdict
+		 */
+		public Verdict verdict() {
+
+			double change = this.change();
+
+			// averages of a few thousand games are only printed to so many places
+			if(Math.abs(change) <= this.threshold || Math.abs(this.current - this.baseline) < 1e-9) {
+				return Verdict.UNCHANGED;
+			}
+
+			return (change > 0) == this.metric.higherIsBetter ? Verdict.IMPROVEMENT : Verdict.REGRESSION;
+		}
+
+		public String toString() {
+
+			return String.format("%-16s %-24s %14.2f %14.2f %+8.1f%% %8.1f%%  %s", this.strategy, this.metric.key + " " + this.metric.unit,
+					this.baseline, this.current, this.change() * 100, this.threshold * 100, this.verdict());
+		}
+	}
+}
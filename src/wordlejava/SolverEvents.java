@@ -0,0 +1,181 @@
+package wordlejava;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.*;
+
+/**
+ *
+ * JDK Flight Recorder events and counters of the solver's hot paths: loading a library, refining
+ * it by a result, picking the next guess and solving a whole game.
+ *
+ * Events are recorded only while a recording has them enabled, for example:
+ *
+ * 		jcmd {pid} JFR.start name=wordle settings=profile
+ *
+ * and cost a few field writes otherwise. Counters are off unless the wordlejava.counters system
+ * property is true and can be turned on and off while running with setCountersEnabled(). main
+ * prints them after a batch and SolverService serves them on /metrics.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class SolverEvents {
+
+	private static volatile boolean countersEnabled = Boolean.getBoolean("wordlejava.counters");
+
+	static final LongAdder LIBRARIES_LOADED = new LongAdder();
+	static final LongAdder REFINES = new LongAdder();
+	static final LongAdder WORDS_REFINED = new LongAdder();
+	static final LongAdder NEXT_GUESSES = new LongAdder();
+	static final LongAdder NEXT_GUESS_NANOS = new LongAdder();
+	static final LongAdder GAMES_SOLVED = new LongAdder();
+	static final LongAdder SOLVE_NANOS = new LongAdder();
+
+	private SolverEvents() {}
+
+	/**
+	 *
+	 * Turns the counters on or off while running.
+	 *
+	 * @param enabled true to count
+	 */
+	public static void setCountersEnabled(boolean enabled) { countersEnabled = enabled; }
+
+	/**
+	 *
+	 * Whether the counters are on.
+	 *
+	 * @return true if counting
+	 */
+	public static boolean countersEnabled() { return countersEnabled; }
+
+	/**
+	 *
+	 * Sets every counter back to 0.
+	 *
+	 */
+	public static void resetCounters() {
+
+		LIBRARIES_LOADED.reset();
+		REFINES.reset();
+		WORDS_REFINED.reset();
+		NEXT_GUESSES.reset();
+		NEXT_GUESS_NANOS.reset();
+		GAMES_SOLVED.reset();
+		SOLVE_NANOS.reset();
+	}
+
+	/**
+	 *
+	 * Returns the value of every counter.
+	 *
+	 * @return the counters as name=value pairs
+	 */
+	public static String counters() {
+
+		return "librariesLoaded=" + LIBRARIES_LOADED.sum()
+				+ " refines=" + REFINES.sum()
+				+ " wordsRefined=" + WORDS_REFINED.sum()
+				+ " nextGuesses=" + NEXT_GUESSES.sum()
+				+ " nextGuessNanos=" + NEXT_GUESS_NANOS.sum()
+				+ " gamesSolved=" + GAMES_SOLVED.sum()
+				+ " solveNanos=" + SOLVE_NANOS.sum();
+	}
+
+	/**
+	 *
+	 * Writes every counter in the Prometheus text format, the nanoseconds as seconds. Writes
+	 * nothing while the counters are off.
+	 *
+	 * @param out where to write
+	 * @throws IOException if writing fails
+	 */
+	public static void writePrometheus(Writer out) throws IOException {
+
+		if(!countersEnabled) {
+			return;
+		}
+
+		writeCounter(out, "wordle_solver_libraries_loaded_total", "Libraries read from the corpus.", LIBRARIES_LOADED.sum());
+		writeCounter(out, "wordle_solver_refines_total", "Libraries refined by the results of a guess.", REFINES.sum());
+		writeCounter(out, "wordle_solver_words_refined_total", "Words removed by refining.", WORDS_REFINED.sum());
+		writeCounter(out, "wordle_solver_next_guesses_total", "Next guesses picked.", NEXT_GUESSES.sum());
+		writeCounter(out, "wordle_solver_next_guess_seconds_total", "Time spent picking next guesses.", NEXT_GUESS_NANOS.sum() / 1e9);
+		writeCounter(out, "wordle_solver_games_solved_total", "Games solved.", GAMES_SOLVED.sum());
+		writeCounter(out, "wordle_solver_solve_seconds_total", "Time spent solving games.", SOLVE_NANOS.sum() / 1e9);
+	}
+
+	private static void writeCounter(Writer out, String name, String help, Number value) throws IOException {
+
+		out.write("# HELP " + name + " " + help + "\n");
+		out.write("# TYPE " + name + " counter\n");
+		out.write(name + " " + value + "\n");
+	}
+
+	@Name("wordlejava.LibraryLoad")
+	@Label("Library Load")
+	@Category("Wordle")
+	@Description("A WordleLibrary read from the corpus")
+	public static final class LibraryLoad extends Event {
+
+		@Label("Source")
+		public String source;
+
+		@Label("Word Length")
+		public int wordleLength;
+
+		@Label("Words")
+		public int words;
+	}
+
+	@Name("wordlejava.Refine")
+	@Label("Refine Library")
+	@Category("Wordle")
+	@Description("The remaining words of a GuessManager refined by the results of a guess")
+	public static final class Refine extends Event {
+
+		@Label("Guess")
+		public String guess;
+
+		@Label("Candidates Before")
+		public int before;
+
+		@Label("Candidates After")
+		public int after;
+	}
+
+	@Name("wordlejava.NextGuess")
+	@Label("Next Guess")
+	@Category("Wordle")
+	@Description("A GuessManager picking the next word to guess")
+	public static final class NextGuess extends Event {
+
+		@Label("Strategy")
+		public String strategy;
+
+		@Label("Candidates")
+		public int candidates;
+
+		@Label("Guess")
+		public String guess;
+	}
+
+	@Name("wordlejava.Solve")
+	@Label("Solve Game")
+	@Category("Wordle")
+	@Description("A WordleSolver solving a whole game")
+	public static final class Solve extends Event {
+
+		@Label("Wordle")
+		public String wordle;
+
+		@Label("Guesses")
+		public int guesses;
+
+		@Label("Win")
+		public boolean win;
+	}
+}
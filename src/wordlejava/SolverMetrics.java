@@ -0,0 +1,207 @@
+package wordlejava;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ *
+ * Latency histograms of the solver's operations kept for each strategy and for bands of the
+ * number of remaining words, so the time to pick a guess can be tied to the state of the game.
+ * Histograms are created the first time they are recorded to and recording never locks.
+ *
+ * Off unless the wordlejava.metrics system property is true or setEnabled() is called. The
+ * histograms can be written in the Prometheus text format to a file or any writer.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class SolverMetrics {
+
+	/**
+	 *
+	 * The operations that are timed.
+	 *
+	 */
+	public enum Operation { NEXT_GUESS, REFINE, SOLVE }
+
+	/**
+	 * Upper bound of each band of remaining words. Bands are labelled by their range.
+	 */
+	private static final int[] BAND_LIMITS = {1, 10, 100, 1000, 10000, Integer.MAX_VALUE};
+	private static final String[] BAND_LABELS = {"1", "2-10", "11-100", "101-1000", "1001-10000", "10001+"};
+	private static final double[] QUANTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+
+	private static final int NUM_STRATEGIES = GuessStrategy.values().length;
+	private static final AtomicReferenceArray<LatencyHistogram> HISTOGRAMS =
+			new AtomicReferenceArray<>(Operation.values().length * NUM_STRATEGIES * BAND_LIMITS.length);
+
+	private static volatile boolean enabled = Boolean.getBoolean("wordlejava.metrics");
+
+	private SolverMetrics() {}
+
+	/**
+	 *
+	 * Turns recording on or off while running.
+	 *
+	 * @param on true to record
+	 */
+	public static void setEnabled(boolean on) { enabled = on; }
+
+	/**
+	 *
+	 * Whether recording is on.
+	 *
+	 * @return true if recording
+	 */
+	public static boolean enabled() { return enabled; }
+
+	/**
+	 *
+	 * Records the latency of an operation.
+	 *
+	 * @param operation the operation that was timed
+	 * @param strategy the strategy of the GuessManager
+	 * @param candidates the number of remaining words when the operation began
+	 * @param nanos the latency in nanoseconds
+	 */
+	public static void record(Operation operation, GuessStrategy strategy, int candidates, long nanos) {
+
+		histogram(operation, strategy, band(candidates)).record(nanos);
+	}
+
+	/**
+	 *
+	 * Gets the histogram of an operation, strategy and band, creating it the first time.
+	 *
+	 */
+	private static LatencyHistogram histogram(Operation operation, GuessStrategy strategy, int band) {
+
+		int slot = (operation.ordinal() * NUM_STRATEGIES + strategy.ordinal()) * BAND_LIMITS.length + band;
+		LatencyHistogram histogram = HISTOGRAMS.get(slot);
+
+		if(histogram == null) {
+			HISTOGRAMS.compareAndSet(slot, null, new LatencyHistogram());
+			histogram = HISTOGRAMS.get(slot);
+		}
+
+		return histogram;
+	}
+
+	/**
+	 *
+	 * Finds the band of a number of remaining words.
+	 *
+	 * @param candidates the number of remaining words
+	 * @return index of the band
+	 */
+	static int band(int candidates) {
+
+		int band = 0;
+		while(candidates > BAND_LIMITS[band]) {
+			band++;
+		}
+
+		return band;
+	}
+
+	/**
+	 *
+	 * Gets the latency percentile of an operation.
+	 *
+	 * @param operation the operation
+	 * @param strategy the strategy
+	 * @param candidates a number of remaining words in the band to look up
+	 * @param quantile fraction between 0 and 1
+	 * @return the latency in nanoseconds. 0 if nothing was recorded
+	 */
+	public static long percentile(Operation operation, GuessStrategy strategy, int candidates, double quantile) {
+
+		return histogram(operation, strategy, band(candidates)).percentile(quantile);
+	}
+
+	/**
+	 *
+	 * Drops every recorded latency.
+	 *
+	 */
+	public static void reset() {
+
+		for(int i = 0; i < HISTOGRAMS.length(); i++) {
+			HISTOGRAMS.set(i, null);
+		}
+	}
+
+	/**
+	 *
+	 * Writes every histogram with recorded latencies as a Prometheus summary in seconds.
+	 *
+	 * @param out where to write
+	 * @throws IOException if writing fails
+	 */
+	public static void writePrometheus(Writer out) throws IOException {
+
+		out.write("# HELP wordle_solver_latency_seconds Latency of solver operations.\n");
+		out.write("# TYPE wordle_solver_latency_seconds summary\n");
+
+		for(Operation operation : Operation.values()) {
+			for(GuessStrategy strategy : GuessStrategy.values()) {
+				for(int band = 0; band < BAND_LIMITS.length; band++) {
+
+					int slot = (operation.ordinal() * NUM_STRATEGIES + strategy.ordinal()) * BAND_LIMITS.length + band;
+					LatencyHistogram histogram = HISTOGRAMS.get(slot);
+
+					if(histogram == null || histogram.count() == 0) {
+						continue;
+					}
+
+					String labels = "operation=\"" + operation.name().toLowerCase() + "\",strategy=\""
+							+ strategy.name().toLowerCase() + "\",candidates=\"" + BAND_LABELS[band] + "\"";
+
+					writeSummary(out, "wordle_solver_latency_seconds", labels, histogram);
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Writes the quantiles, sum and count of a histogram as a Prometheus summary in seconds.
+	 *
+	 * @param out where to write
+	 * @param name the metric name
+	 * @param labels the labels of the summary without braces
+	 * @param histogram the histogram to write
+	 * @throws IOException if writing fails
+	 */
+	static void writeSummary(Writer out, String name, String labels, LatencyHistogram histogram) throws IOException {
+
+		for(double quantile : QUANTILES) {
+			out.write(name + "{" + labels + ",quantile=\"" + quantile + "\"} " + histogram.percentile(quantile) / 1e9 + "\n");
+		}
+
+		out.write(name + "_sum{" + labels + "} " + histogram.sum() / 1e9 + "\n");
+		out.write(name + "_count{" + labels + "} " + histogram.count() + "\n");
+	}
+
+	/**
+	 *
+	 * Writes the histograms to a file in the Prometheus text format. The file is replaced
+	 * all at once so readers never see a partial file.
+	 *
+	 * @param file the file to write
+	 * @throws IOException if writing fails
+	 */
+	public static void writePrometheus(Path file) throws IOException {
+
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			writePrometheus(out);
+		}
+
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
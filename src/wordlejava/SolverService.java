@@ -0,0 +1,603 @@
+package wordlejava;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ *
+ * Recommends the next guess for games played somewhere else. Unlike WordleSolver the wordle
+ * doesn't need to be known: a request gives the guesses made so far and their results and gets
+ * back the next guess and how many possible wordles remain. Every request of a word length is
+ * answered from the same immutable WordleLibrary so requests can be served from many threads at
+ * once. Libraries are taken from the current WordleDictionary of a DictionaryRegistry, so a
+ * length is only built the first time it is asked for and reloading the words takes effect on
+ * the next request without pausing requests in progress.
+ *
+ * Can be served over HTTP on the loopback address:
+ *
+ * 		GET /next?history=crane:02001,split:00210&amp;strategy=entropy&amp;budget=50&amp;length=5
+ * 		GET /metrics
+ * 		POST /reload
+ *
+ * budget is an optional number of milliseconds the guess must be picked within and length is
+ * the optional length of the wordle.
+ * /next responds with the guess and the number of remaining words separated by a tab, or
+ * "-" and 0 if no word matches the history. /metrics responds with the latency of each
+ * endpoint, the SolverMetrics histograms and the SolverEvents counters if they are on in the
+ * Prometheus text format. /reload starts reading the words again in the background and
+ * responds right away with 202, or 409 if the words can't be reloaded. The lengths in use get
+ * their feedback tables and first guesses built from the new words before they are published.
+ *
+ * @author johnmatthew
+ *
+ */
+public class SolverService {
+
+	/**
+	 * Most guesses remembered for each strategy before the memo is cleared.
+	 */
+	public static final int MAX_MEMOS = 4096;
+
+	private final DictionaryRegistry registry;
+	private final int defaultLength;
+	private final GuessStrategy defaultStrategy;
+	private final ConcurrentHashMap<Integer, Variant> variants;
+	private final ConcurrentHashMap<Integer, Variant> prepared;
+	private final ConcurrentHashMap<String, LatencyHistogram> latencies;
+	private HttpServer server;
+	private ExecutorService executor;
+
+	/**
+	 *
+	 * Creates a service that answers from a library. Nothing is served until start() is called.
+	 *
+	 * @param library the words that can be guessed and their priors. Shared by every request
+	 * @param defaultStrategy the strategy used when a request doesn't give one
+	 */
+	public SolverService(WordleLibrary library, GuessStrategy defaultStrategy) {
+
+		this(WordleDictionary.of(library), library.wordleLength(), defaultStrategy);
+	}
+
+	/**
+	 *
+	 * Creates a service that answers from a SolverSnapshot, reading patterns from its feedback
+	 * table and starting with the first guesses it holds so the first request is answered
+	 * without any scoring. Nothing is served until start() is called.
+	 *
+	 * @param snapshot the library, table and first guesses to answer from
+	 * @param defaultStrategy the strategy used when a request doesn't give one
+	 */
+	public SolverService(SolverSnapshot snapshot, GuessStrategy defaultStrategy) {
+
+		this(snapshot.library(), defaultStrategy);
+
+		WordleLibrary library = snapshot.library();
+		Variant variant = new Variant(this.registry.current(), library, snapshot.feedbackTable());
+
+		for(GuessStrategy strategy : GuessStrategy.values()) {
+			if(snapshot.opener(strategy) != null) {
+				variant.openers.put(strategy, snapshot.opener(strategy));
+			}
+		}
+
+		this.variants.put(library.wordleLength(), variant);
+	}
+
+	/**
+	 *
+	 * Creates a service that answers games of any length in a dictionary. Nothing is served
+	 * until start() is called.
+	 *
+	 * @param dictionary the words of each length and their priors. Shared by every request
+	 * @param defaultLength the length used when a request doesn't give one
+	 * @param defaultStrategy the strategy used when a request doesn't give one
+	 */
+	public SolverService(WordleDictionary dictionary, int defaultLength, GuessStrategy defaultStrategy) {
+
+		this(DictionaryRegistry.of(dictionary), defaultLength, defaultStrategy);
+	}
+
+	/**
+	 *
+	 * Creates a service that answers from the current dictionary of a registry. Nothing is
+	 * served until start() is called.
+	 *
+	 * @param registry publishes the words of each length and their priors
+	 * @param defaultLength the length used when a request doesn't give one
+	 * @param defaultStrategy the strategy used when a request doesn't give one
+	 */
+	public SolverService(DictionaryRegistry registry, int defaultLength, GuessStrategy defaultStrategy) {
+
+		this.registry = registry;
+		this.defaultLength = defaultLength;
+		this.defaultStrategy = defaultStrategy;
+		this.variants = new ConcurrentHashMap<>();
+		this.prepared = new ConcurrentHashMap<>();
+		this.latencies = new ConcurrentHashMap<>();
+
+		registry.addReloadHook(this::prepare);
+	}
+
+	/**
+	 *
+	 * Builds the state of a new dictionary before it is published: every length in use and the
+	 * default length get their library, a feedback table if they had one and the first guess of
+	 * each strategy they had one for, so requests after a reload don't wait on any of it.
+	 *
+	 * @param dictionary the dictionary about to be published
+	 */
+	private void prepare(WordleDictionary dictionary) {
+
+		TreeSet<Integer> lengths = new TreeSet<>(this.variants.keySet());
+		lengths.add(this.defaultLength);
+
+		for(int length : lengths) {
+
+			WordleLibrary library = dictionary.library(length);
+			if(library == null) {
+				continue;
+			}
+
+			Variant old = this.variants.get(length);
+			Variant variant = new Variant(dictionary, library, old != null && old.feedbackTable != null ? FeedbackTable.build(library) : null);
+
+			EnumSet<GuessStrategy> strategies = EnumSet.of(this.defaultStrategy);
+			if(old != null) {
+				strategies.addAll(old.openers.keySet());
+			}
+
+			for(GuessStrategy strategy : strategies) {
+				variant.openers.put(strategy, variant.newGuessManager(strategy).getNextWord());
+			}
+
+			this.prepared.put(length, variant);
+		}
+	}
+
+	/**
+	 *
+	 * Recommends the next guess for a game of the default length. The first guess of each
+	 * strategy is computed once and reused since every game begins with the full library.
+	 *
+	 * @param history the guesses made so far and their results
+	 * @param strategy the logic used to pick the guess
+	 * @return the recommended guess and the number of remaining words
+	 */
+	public Recommendation nextGuess(GuessHistory history, GuessStrategy strategy) {
+
+		return this.nextGuess(history, strategy, Long.MAX_VALUE);
+	}
+
+	/**
+	 *
+	 * Recommends the next guess for a game within a time budget. The best guess found when the
+	 * budget runs out is returned. Refining the remaining words by the history isn't bounded by
+	 * the budget and the time it takes is taken off the time left to pick the guess, which is the
+	 * first remaining word if none is left. A guess found within a budget isn't reused since a
+	 * better one might exist, but guesses found without a budget are remembered for each set of
+	 * remaining words and returned right away.
+	 *
+	 * @param history the guesses made so far and their results
+	 * @param strategy the logic used to pick the guess
+	 * @param budgetNanos the time allowed to pick the guess. Long.MAX_VALUE for no limit
+	 * @return the recommended guess and the number of remaining words
+	 */
+	public Recommendation nextGuess(GuessHistory history, GuessStrategy strategy, long budgetNanos) {
+
+		return this.nextGuess(this.defaultLength, history, strategy, budgetNanos);
+	}
+
+	/**
+	 *
+	 * Recommends the next guess for a game of any length in the dictionary within a time budget.
+	 *
+	 * @param wordleLength the length of the wordle
+	 * @param history the guesses made so far and their results
+	 * @param strategy the logic used to pick the guess
+	 * @param budgetNanos the time allowed to pick the guess. Long.MAX_VALUE for no limit
+	 * @return the recommended guess and the number of remaining words
+	 * @throws IllegalArgumentException if the dictionary has no words of the length
+	 */
+	public Recommendation nextGuess(int wordleLength, GuessHistory history, GuessStrategy strategy, long budgetNanos) {
+
+		long start = System.nanoTime();
+		Variant variant = this.variant(wordleLength);
+
+		if(history.size() == 0) {
+
+			String opener = variant.openers.get(strategy);
+
+			if(opener == null && budgetNanos != Long.MAX_VALUE) {
+				opener = variant.newGuessManager(strategy).getNextWord(budgetNanos, TimeUnit.NANOSECONDS);
+			} else if(opener == null) {
+				opener = variant.openers.computeIfAbsent(strategy, s -> variant.newGuessManager(s).getNextWord());
+			}
+
+			return new Recommendation(opener, variant.library.size());
+		}
+
+		GuessManager guessManager = variant.newGuessManager(strategy);
+		history.applyTo(guessManager);
+
+		if(guessManager.size() == 0) {
+			return new Recommendation(null, 0);
+		}
+
+		// scoring strategies only read the remaining words, so games that reach the same
+		// remaining words by different guesses get the same guess
+		CandidateSet candidates = guessManager.candidates();
+		ConcurrentHashMap<CandidateSet, String> memo = strategy == GuessStrategy.HIGHEST_IMPACT || candidates == null ? null
+				: variant.memos.computeIfAbsent(strategy, s -> new ConcurrentHashMap<>());
+
+		String guess = memo == null ? null : memo.get(candidates);
+
+		if(guess == null && budgetNanos == Long.MAX_VALUE) {
+
+			guess = guessManager.getNextWord();
+
+			if(memo != null) {
+
+				if(memo.size() >= MAX_MEMOS) {
+					memo.clear();
+				}
+				memo.put(candidates, guess);
+			}
+
+		} else if(guess == null) {
+			// refining by the history isn't bounded by the budget, but the time it took is taken
+			// off the time left to pick the guess
+			guess = guessManager.getNextWord(Math.max(0, budgetNanos - (System.nanoTime() - start)), TimeUnit.NANOSECONDS);
+		}
+
+		return new Recommendation(guess, guessManager.size());
+	}
+
+	/**
+	 *
+	 * Gets the library of a length in the current dictionary and the guesses remembered for
+	 * it, taking the state prepared for the dictionary before it was published or building
+	 * the library the first time the length is asked for. Guesses remembered from an older
+	 * dictionary are dropped.
+	 *
+	 * @param wordleLength the length of the wordle
+	 * @return the state of the length
+	 * @throws IllegalArgumentException if the dictionary has no words of the length
+	 */
+	private Variant variant(int wordleLength) {
+
+		WordleDictionary dictionary = this.registry.current();
+		Variant variant = this.variants.get(wordleLength);
+
+		if(variant == null || variant.dictionary != dictionary) {
+
+			Variant ready = this.prepared.get(wordleLength);
+
+			if(ready != null && ready.dictionary == dictionary) {
+
+				variant = ready;
+
+			} else {
+
+				WordleLibrary library = dictionary.library(wordleLength);
+				if(library == null) {
+					throw new IllegalArgumentException("no words of length " + wordleLength);
+				}
+
+				variant = new Variant(dictionary, library, null);
+			}
+
+			this.variants.put(wordleLength, variant);
+		}
+
+		return variant;
+	}
+
+	/**
+	 *
+	 * Starts serving HTTP requests on the loopback address. Every request is handled on its
+	 * own thread.
+	 *
+	 * @param port the port to listen on. 0 picks a free port
+	 * @throws IOException if the server can't be bound
+	 */
+	public void start(int port) throws IOException {
+
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+		this.executor = SolverThreads.newPerTaskExecutor();
+
+		this.server.createContext("/next", exchange -> this.timed("/next", exchange, 200, this::handleNext));
+		this.server.createContext("/metrics", exchange -> this.timed("/metrics", exchange, 200, this::handleMetrics));
+		this.server.createContext("/reload", exchange -> this.timed("/reload", exchange, 202, this::handleReload));
+		this.server.setExecutor(this.executor);
+		this.server.start();
+
+		// compute the first guess in the background so budgeted requests can reuse it
+		this.executor.execute(() -> this.nextGuess(GuessHistory.parse("", this.defaultLength), this.defaultStrategy));
+	}
+
+	/**
+	 *
+	 * Stops serving requests, waiting up to a second for requests in progress.
+	 *
+	 */
+	public void stop() {
+
+		if(this.server != null) {
+			this.server.stop(1);
+			this.executor.shutdown();
+		}
+	}
+
+	/**
+	 *
+	 * The port requests are served on.
+	 *
+	 * @return the bound port. -1 if not started
+	 */
+	public int port() { return this.server == null ? -1 : this.server.getAddress().getPort(); }
+
+	/**
+	 *
+	 * Gets the latency histogram of an endpoint, creating it the first time.
+	 *
+	 * @param endpoint path of the endpoint
+	 * @return the histogram of the endpoint
+	 */
+	public LatencyHistogram latency(String endpoint) {
+
+		return this.latencies.computeIfAbsent(endpoint, e -> new LatencyHistogram());
+	}
+
+	/**
+	 *
+	 * Handles a request and records how long it took in the histogram of its endpoint.
+	 * Bad requests get a 400 response with the reason, requests the service can't carry out
+	 * get a 409 and requests that fail any other way get a 500, so no request is left without
+	 * a response.
+	 *
+	 */
+	private void timed(String endpoint, HttpExchange exchange, int status, Handler handler) throws IOException {
+
+		long start = System.nanoTime();
+
+		try {
+
+			respond(exchange, status, handler.handle(exchange));
+
+		} catch (IllegalArgumentException e) {
+
+			respond(exchange, 400, e.getMessage() + "\n");
+
+		} catch (IllegalStateException e) {
+
+			respond(exchange, 409, e.getMessage() + "\n");
+
+		} catch (RuntimeException e) {
+
+			e.printStackTrace();
+			respond(exchange, 500, e + "\n");
+
+		} catch (Error e) {
+
+			// answered so the client isn't left waiting, then passed on since the JVM may not recover
+			respond(exchange, 500, e + "\n");
+			throw e;
+
+		} finally {
+
+			exchange.close();
+			this.latency(endpoint).record(System.nanoTime() - start);
+		}
+	}
+
+	private String handleNext(HttpExchange exchange) {
+
+		Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+		GuessStrategy strategy = this.defaultStrategy;
+		if(query.containsKey("strategy")) {
+			strategy = GuessStrategy.valueOf(query.get("strategy").toUpperCase());
+		}
+
+		long budgetNanos = Long.MAX_VALUE;
+		if(query.containsKey("budget")) {
+			budgetNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(query.get("budget")));
+		}
+
+		int wordleLength = this.defaultLength;
+		if(query.containsKey("length")) {
+			wordleLength = Integer.parseInt(query.get("length"));
+		}
+
+		GuessHistory history = GuessHistory.parse(query.get("history"), wordleLength);
+
+		return this.nextGuess(wordleLength, history, strategy, budgetNanos) + "\n";
+	}
+
+	private String handleMetrics(HttpExchange exchange) {
+
+		StringWriter out = new StringWriter();
+		TreeMap<String, LatencyHistogram> sorted = new TreeMap<>(this.latencies);
+
+		try {
+
+			out.write("# HELP wordle_service_latency_seconds Latency of service requests.\n");
+			out.write("# TYPE wordle_service_latency_seconds summary\n");
+
+			for(Map.Entry<String, LatencyHistogram> entry : sorted.entrySet()) {
+				SolverMetrics.writeSummary(out, "wordle_service_latency_seconds", "endpoint=\"" + entry.getKey() + "\"", entry.getValue());
+			}
+
+			SolverMetrics.writePrometheus(out);
+			SolverEvents.writePrometheus(out);
+
+		} catch (IOException e) {
+			// StringWriter doesn't throw
+		}
+
+		return out.toString();
+	}
+
+	private String handleReload(HttpExchange exchange) {
+
+		if(!exchange.getRequestMethod().equalsIgnoreCase("POST")) {
+			throw new IllegalArgumentException("use POST to reload");
+		}
+
+		if(!this.registry.reloadable()) {
+			throw new IllegalStateException("the words of this service can't be reloaded");
+		}
+
+		long version = this.registry.version();
+
+		this.registry.reload().whenComplete((dictionary, e) -> {
+			if(e != null) {
+				e.printStackTrace();
+			}
+		});
+
+		return "reloading version " + version + "\n";
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 *
+	 * Splits a raw query string into decoded keys and values.
+	 *
+	 * @param rawQuery the query of the request URI. May be null
+	 * @return the parameters of the query
+	 */
+	static Map<String, String> parseQuery(String rawQuery) {
+
+		HashMap<String, String> query = new HashMap<>();
+
+		if(rawQuery == null) {
+			return query;
+		}
+
+		for(String parameter : rawQuery.split("&")) {
+
+			int equals = parameter.indexOf('=');
+			if(equals == -1) {
+				continue;
+			}
+
+			query.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+					URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+		}
+
+		return query;
+	}
+
+	/**
+	 *
+	 * The library of one length with the first guess of each strategy and the guesses
+	 * remembered for each set of remaining words.
+	 *
+	 */
+	private static final class Variant {
+
+		private final WordleDictionary dictionary;
+		private final WordleLibrary library;
+		private final FeedbackTable feedbackTable;
+		private final ConcurrentHashMap<GuessStrategy, String> openers;
+		private final ConcurrentHashMap<GuessStrategy, ConcurrentHashMap<CandidateSet, String>> memos;
+
+		Variant(WordleDictionary dictionary, WordleLibrary library, FeedbackTable feedbackTable) {
+
+			this.dictionary = dictionary;
+			this.library = library;
+			this.feedbackTable = feedbackTable;
+			this.openers = new ConcurrentHashMap<>();
+			this.memos = new ConcurrentHashMap<>();
+		}
+
+		/**
+		 *
+		 * Creates a GuessManager over a view of the full library, reading patterns from the
+		 * feedback table if there is one.
+		 *
+		 * @param strategy the logic used to pick guesses
+		 * @return a new GuessManager
+		 */
+		GuessManager newGuessManager(GuessStrategy strategy) {
+
+			GuessManager guessManager = new GuessManager(this.library);
+			guessManager.setStrategy(strategy);
+			guessManager.setFeedbackTable(this.feedbackTable);
+
+			return guessManager;
+		}
+	}
+
+	/**
+	 *
+	 * Produces the body of a response to a request.
+	 *
+	 */
+	private interface Handler {
+
+		String handle(HttpExchange exchange);
+	}
+
+	/**
+	 *
+	 * The answer to a request: the recommended guess and the number of words that could
+	 * still be the wordle.
+	 *
+	 */
+	public static final class Recommendation {
+
+		private final String guess;
+		private final int remaining;
+
+		public Recommendation(String guess, int remaining) {
+
+			this.guess = guess;
+			this.remaining = remaining;
+		}
+
+		/**
+		 *
+		 * The recommended guess.
+		 *
+		 * @return the guess. null if no word matches the history
+		 */
+		public String guess() { return this.guess; }
+
+		/**
+		 *
+		 * The number of words that could still be the wordle.
+		 *
+		 * @return int of the remaining words
+		 */
+		public int remaining() { return this.remaining; }
+
+		/**
+		 *
+		 * Returns the guess and the remaining words separated by a tab.
+		 *
+		 */
+		public String toString() { return (this.guess == null ? "-" : this.guess) + "\t" + this.remaining; }
+	}
+}
@@ -0,0 +1,280 @@
+package wordlejava;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ *
+ * Image of the solver state derived from the corpus, so short lived processes can skip reading
+ * and sorting the corpus, building the feedback table and finding the first guess. Holds a
+ * WordleLibrary, optionally its FeedbackTable, and the first guess of each strategy.
+ *
+ * The image is a 64 byte header followed by a body:
+ *
+ * 		header: magic, format version, word length, words, answers, bytes per pattern,
+ * 				strategies, body length, CRC32C of the body
+ * 		body:   words as ASCII letters, counts, index of the first guess of each strategy,
+ * 				patterns of the table row by row
+ *
+ * Images are loaded by mapping the file and checking the version and checksum before anything
+ * is read, so an image written by another version or damaged on disk is refused instead of
+ * giving wrong guesses. Images are written to a temporary file and renamed into place.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class SolverSnapshot {
+
+	public static final int FORMAT_VERSION = 1;
+
+	private static final long MAGIC = 0x574F52444C534E50L; // "WORDLSNP"
+	private static final int HEADER_BYTES = 64;
+
+	private final WordleLibrary library;
+	private final FeedbackTable feedbackTable;
+	private final String[] openers;
+
+	private SolverSnapshot(WordleLibrary library, FeedbackTable feedbackTable, String[] openers) {
+
+		this.library = library;
+		this.feedbackTable = feedbackTable;
+		this.openers = openers;
+	}
+
+	/**
+	 *
+	 * Builds the state to snapshot from a library, finding the first guess of every strategy.
+	 *
+	 * @param library the library to snapshot
+	 * @param withTable true to build and include the feedback table
+	 * @return the snapshot of the library
+	 */
+	public static SolverSnapshot build(WordleLibrary library, boolean withTable) {
+
+		FeedbackTable feedbackTable = withTable ? FeedbackTable.build(library) : null;
+		String[] openers = new String[GuessStrategy.values().length];
+
+		for(GuessStrategy strategy : GuessStrategy.values()) {
+
+			GuessManager guessManager = new GuessManager(library);
+			guessManager.setStrategy(strategy);
+			guessManager.setFeedbackTable(feedbackTable);
+
+			openers[strategy.ordinal()] = guessManager.getNextWord();
+		}
+
+		return new SolverSnapshot(library, feedbackTable, openers);
+	}
+
+	/**
+	 *
+	 * Writes the image to a file, replacing it all at once.
+	 *
+	 * @param file the file to write
+	 * @throws IOException if writing fails
+	 */
+	public void write(Path file) throws IOException {
+
+		int size = this.library.size();
+		int wordleLength = this.library.wordleLength();
+		int bytesPerPattern = this.feedbackTable == null ? 0 : WordleGame.getNumPatterns(wordleLength) <= 256 ? 1 : 2;
+		int numStrategies = this.openers.length;
+
+		ByteBuffer words = ByteBuffer.allocate(size * wordleLength);
+		ByteBuffer counts = ByteBuffer.allocate(size * Long.BYTES);
+		ByteBuffer openers = ByteBuffer.allocate(numStrategies * Integer.BYTES);
+
+		for(int i = 0; i < size; i++) {
+			words.put(this.library.word(i).getBytes(StandardCharsets.US_ASCII));
+			counts.putLong(this.library.count(i));
+		}
+
+		for(String opener : this.openers) {
+			openers.putInt(opener == null ? -1 : this.library.indexOf(opener));
+		}
+
+		CRC32C crc = new CRC32C();
+		crc.update(words.array());
+		crc.update(counts.array());
+		crc.update(openers.array());
+
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			long bodyLength = words.capacity() + counts.capacity() + openers.capacity() + (long) size * size * bytesPerPattern;
+
+			// header is written last once the checksum of the table is known
+			channel.position(HEADER_BYTES);
+			writeFully(channel, words.flip());
+			writeFully(channel, counts.flip());
+			writeFully(channel, openers.flip());
+
+			if(this.feedbackTable != null) {
+
+				ByteBuffer row = ByteBuffer.allocate(size * bytesPerPattern);
+
+				for(int guess = 0; guess < size; guess++) {
+
+					row.clear();
+					for(int answer = 0; answer < size; answer++) {
+
+						int pattern = this.feedbackTable.pattern(guess, answer);
+						if(bytesPerPattern == 1) {
+							row.put((byte) pattern);
+						} else {
+							row.putChar((char) pattern);
+						}
+					}
+
+					crc.update(row.array());
+					writeFully(channel, row.flip());
+				}
+			}
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putLong(MAGIC).putInt(FORMAT_VERSION).putInt(wordleLength).putInt(size).putInt(this.library.answerCount())
+					.putInt(bytesPerPattern).putInt(numStrategies).putLong(bodyLength).putLong(crc.getValue());
+
+			channel.position(0);
+			writeFully(channel, header.clear());
+			channel.force(true);
+		}
+
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 *
+	 * Maps an image and loads the state in it.
+	 *
+	 * @param file the image to load
+	 * @return the snapshot of the image
+	 * @throws IOException if the file can't be read
+	 * @throws IllegalArgumentException if the file isn't an image of this version or its
+	 * 			checksum doesn't match
+	 */
+	public static SolverSnapshot load(Path file) throws IOException {
+
+		MappedByteBuffer image;
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			if(channel.size() < HEADER_BYTES) {
+				throw new IllegalArgumentException("not a snapshot: " + file);
+			}
+
+			image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if(image.getLong(0) != MAGIC) {
+			throw new IllegalArgumentException("not a snapshot: " + file);
+		}
+
+		if(image.getInt(8) != FORMAT_VERSION) {
+			throw new IllegalArgumentException("snapshot format " + image.getInt(8) + " isn't " + FORMAT_VERSION + ": " + file);
+		}
+
+		int wordleLength = image.getInt(12);
+		int size = image.getInt(16);
+		int answerCount = image.getInt(20);
+		int bytesPerPattern = image.getInt(24);
+		int numStrategies = image.getInt(28);
+		long bodyLength = image.getLong(32);
+		long checksum = image.getLong(40);
+
+		if(HEADER_BYTES + bodyLength != image.capacity() || numStrategies != GuessStrategy.values().length) {
+			throw new IllegalArgumentException("snapshot doesn't match its header: " + file);
+		}
+
+		CRC32C crc = new CRC32C();
+		crc.update(image.duplicate().position(HEADER_BYTES));
+
+		if(crc.getValue() != checksum) {
+			throw new IllegalArgumentException("snapshot checksum doesn't match: " + file);
+		}
+
+		ByteBuffer body = image.duplicate().position(HEADER_BYTES);
+
+		byte[] letters = new byte[size * wordleLength];
+		body.get(letters);
+
+		String[] words = new String[size];
+		for(int i = 0; i < size; i++) {
+			words[i] = new String(letters, i * wordleLength, wordleLength, StandardCharsets.US_ASCII);
+		}
+
+		long[] counts = new long[size];
+		body.asLongBuffer().get(counts);
+		body.position(body.position() + size * Long.BYTES);
+
+		WordleLibrary library = new WordleLibrary(wordleLength, words, counts, answerCount);
+
+		String[] openers = new String[numStrategies];
+		for(int i = 0; i < numStrategies; i++) {
+
+			int opener = body.getInt();
+			openers[i] = opener == -1 ? null : library.word(opener);
+		}
+
+		FeedbackTable feedbackTable = null;
+
+		if(bytesPerPattern == 1) {
+
+			byte[] patterns = new byte[size * size];
+			body.get(patterns);
+			feedbackTable = new HeapFeedbackTable(library, patterns, null);
+
+		} else if(bytesPerPattern == 2) {
+
+			char[] patterns = new char[size * size];
+			body.asCharBuffer().get(patterns);
+			feedbackTable = new HeapFeedbackTable(library, null, patterns);
+		}
+
+		return new SolverSnapshot(library, feedbackTable, openers);
+	}
+
+	/**
+	 *
+	 * The library of the snapshot.
+	 *
+	 * @return the library
+	 */
+	public WordleLibrary library() { return this.library; }
+
+	/**
+	 *
+	 * The feedback table of the library.
+	 *
+	 * @return the table. null if the snapshot was built without one
+	 */
+	public FeedbackTable feedbackTable() { return this.feedbackTable; }
+
+	/**
+	 *
+	 * The first guess of a strategy on the full library.
+	 *
+	 * @param strategy the strategy
+	 * @return the first guess
+	 */
+	public String opener(GuessStrategy strategy) { return this.openers[strategy.ordinal()]; }
+
+	public String toString() {
+
+		return this.library + (this.feedbackTable == null ? "" : " with feedback table") + ", openers " + Arrays.toString(this.openers);
+	}
+}
@@ -0,0 +1,63 @@
+package wordlejava;
+
+import java.util.concurrent.*;
+
+/**
+ *
+ * Creates the executors used to serve requests and connections. Uses a virtual thread per
+ * task when the running JDK supports them and falls back to a cached pool of platform threads
+ * otherwise, so the package still compiles and runs on older JDKs.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class SolverThreads {
+
+	private SolverThreads() {}
+
+	/**
+	 *
+	 * Creates an executor that starts a new thread for every task.
+	 *
+	 * @return a virtual thread per task executor if available, otherwise a cached thread pool
+	 */
+	public static ExecutorService newPerTaskExecutor() {
+
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(daemonThreads());
+		}
+	}
+
+	/**
+	 *
+	 * Whether newPerTaskExecutor() uses virtual threads on the running JDK.
+	 *
+	 * @return true if virtual threads are available
+	 */
+	public static boolean hasVirtualThreads() {
+
+		try {
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 *
+	 * Thread factory for daemon threads so background work doesn't keep the JVM running.
+	 *
+	 * @return factory of daemon threads
+	 */
+	public static ThreadFactory daemonThreads() {
+
+		return r -> {
+			Thread t = new Thread(r);
+			t.setDaemon(true);
+			return t;
+		};
+	}
+}
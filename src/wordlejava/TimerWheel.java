@@ -0,0 +1,95 @@
+package wordlejava;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongPredicate;
+
+/**
+ *
+ * Hashed timer wheel of ids. Scheduling an id puts it in the slot of its deadline tick so each
+ * tick only looks at one slot instead of every id. Deadlines further away than one turn of the
+ * wheel stay in their slot until the wheel comes around enough times.
+ *
+ * Scheduling can be done from any thread. tick() must only be called from one thread.
+ *
+ * @author johnmatthew
+ *
+ */
+public class TimerWheel {
+
+	private final ConcurrentLinkedQueue<long[]>[] slots;
+	private volatile long currentTick;
+
+	/**
+	 *
+	 * Creates a wheel with a number of slots starting at tick 0.
+	 *
+	 * @param numSlots the number of ticks in one turn of the wheel
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public TimerWheel(int numSlots) {
+
+		this.slots = new ConcurrentLinkedQueue[numSlots];
+
+		for(int i = 0; i < numSlots; i++) {
+			this.slots[i] = new ConcurrentLinkedQueue<>();
+		}
+	}
+
+	/**
+	 *
+	 * Schedules an id to be expired at a tick. Deadlines already passed expire on the next tick.
+	 *
+	 * @param id the id to expire
+	 * @param deadlineTick the tick the id expires on
+	 */
+	public void schedule(long id, long deadlineTick) {
+
+		long tick = Math.max(deadlineTick, this.currentTick + 1);
+
+		this.slots[(int) (tick % this.slots.length)].add(new long[] {id, tick});
+	}
+
+	/**
+	 *
+	 * Moves the wheel forward one tick and offers every id due on that tick to expire.
+	 * Ids the predicate doesn't expire are dropped from the wheel, so the owner must
+	 * schedule them again if they have a new deadline.
+	 *
+	 * @param expire called with each due id. Returns false if the id shouldn't expire
+	 * @return the number of ids that expired
+	 */
+	public int tick(LongPredicate expire) {
+
+		long tick = ++this.currentTick;
+		ConcurrentLinkedQueue<long[]> slot = this.slots[(int) (tick % this.slots.length)];
+		int expired = 0;
+
+		for(int i = slot.size(); i > 0; i--) {
+
+			long[] entry = slot.poll();
+			if(entry == null) {
+				break;
+			}
+
+			// not due until a later turn of the wheel
+			if(entry[1] > tick) {
+				slot.add(entry);
+				continue;
+			}
+
+			if(expire.test(entry[0])) {
+				expired++;
+			}
+		}
+
+		return expired;
+	}
+
+	/**
+	 *
+	 * The number of ticks the wheel has moved forward.
+	 *
+	 * @return the current tick
+	 */
+	public long currentTick() { return this.currentTick; }
+}
@@ -0,0 +1,294 @@
+package wordlejava;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ *
+ * Words of every length read from frequency data in a single pass. While reading, each word is
+ * appended to the packed store of its length: the letters of all words of a length in one char
+ * array and their token counts in a parallel long array, so no String is created per line.
+ * The WordleLibrary of a length is only built the first time it is asked for and its packed
+ * store is dropped once built, so a dictionary serving several lengths starts as soon as the
+ * data is read and each length is built once.
+ *
+ * A library built from a dictionary is the same as one read by GuessManager.importLibrary()
+ * for that length.
+ *
+ * @author johnmatthew
+ *
+ */
+public final class WordleDictionary {
+
+	/**
+	 * Longest words that are kept. Scoring a guess keeps a weight and a count for each of the
+	 * 3^length patterns, over 14 million at 15 letters, so longer words would take too much
+	 * memory. Patterns themselves fit in an int up to 19 letters, and a FeedbackTable only holds
+	 * words up to 10 letters since its patterns are two bytes.
+	 */
+	public static final int MAX_LENGTH = 15;
+
+	private final PackedWords[] stores;
+	private final WordleLibrary[] libraries;
+	private final int answerCount;
+
+	private WordleDictionary(PackedWords[] stores, int answerCount) {
+
+		this.stores = stores;
+		this.libraries = new WordleLibrary[MAX_LENGTH + 1];
+		this.answerCount = answerCount;
+	}
+
+	/**
+	 *
+	 * Reads lines of tab separated frequency data until a line without a tab, the same as
+	 * GuessManager.readLibrary(), keeping words of every length up to MAX_LENGTH.
+	 *
+	 * Records a SolverEvents.LibraryLoad event with a word length of 0.
+	 *
+	 * @param in reader of the frequency data
+	 * @param source where the data is read from
+	 * @return dictionary of the words read
+	 * @throws IOException if the data can't be read
+	 */
+	static WordleDictionary read(BufferedReader in, String source) throws IOException {
+
+		SolverEvents.LibraryLoad event = new SolverEvents.LibraryLoad();
+		event.begin();
+
+		PackedWords[] stores = new PackedWords[MAX_LENGTH + 1];
+		int words = 0;
+
+		String line;
+		while (((line = in.readLine()) != null) && (line.indexOf('\t') != -1)) {
+
+			int length = line.indexOf('\t');
+			if(length == 0 || length > MAX_LENGTH || !isLetters(line, length)) {
+				continue;
+			}
+
+			if(stores[length] == null) {
+				stores[length] = new PackedWords(length);
+			}
+
+			stores[length].add(line, parseCount(line));
+			words++;
+		}
+
+		event.end();
+
+		if(event.shouldCommit()) {
+			event.source = source;
+			event.wordleLength = 0;
+			event.words = words;
+			event.commit();
+		}
+
+		return new WordleDictionary(stores, WordleGame.STANDARD_ANSWERS);
+	}
+
+	/**
+	 *
+	 * Creates a dictionary of a single library that has already been built.
+	 *
+	 * @param library the library of its length
+	 * @return dictionary holding only the library
+	 */
+	public static WordleDictionary of(WordleLibrary library) {
+
+		WordleDictionary dictionary = new WordleDictionary(new PackedWords[MAX_LENGTH + 1], library.answerCount());
+		dictionary.libraries[library.wordleLength()] = library;
+
+		return dictionary;
+	}
+
+	/**
+	 *
+	 * Gets the library of a length, building it the first time it is asked for. Libraries of
+	 * different lengths can be built by different threads at once.
+	 *
+	 * @param wordleLength length of the words
+	 * @return library of the words of the length. null if the data has no words of the length
+	 */
+	public WordleLibrary library(int wordleLength) {
+
+		if(wordleLength < 1 || wordleLength > MAX_LENGTH) {
+			throw new IllegalArgumentException("word length must be between 1 and " + MAX_LENGTH + ": " + wordleLength);
+		}
+
+		PackedWords store;
+
+		synchronized (this.libraries) {
+
+			if(this.libraries[wordleLength] != null || this.stores[wordleLength] == null) {
+				return this.libraries[wordleLength];
+			}
+
+			store = this.stores[wordleLength];
+		}
+
+		// only one thread builds each length
+		synchronized (store) {
+
+			synchronized (this.libraries) {
+				if(this.libraries[wordleLength] != null) {
+					return this.libraries[wordleLength];
+				}
+			}
+
+			WordleLibrary library = new WordleLibrary(wordleLength, store.wordCounts(), this.answerCount);
+
+			if(SolverEvents.countersEnabled()) {
+				SolverEvents.LIBRARIES_LOADED.increment();
+			}
+
+			synchronized (this.libraries) {
+				this.libraries[wordleLength] = library;
+				this.stores[wordleLength] = null;
+			}
+
+			return library;
+		}
+	}
+
+	/**
+	 *
+	 * The lengths that have words, whether or not their libraries are built yet.
+	 *
+	 * @return the lengths in increasing order
+	 */
+	public int[] lengths() {
+
+		synchronized (this.libraries) {
+
+			int[] lengths = new int[MAX_LENGTH + 1];
+			int size = 0;
+
+			for(int i = 1; i <= MAX_LENGTH; i++) {
+				if(this.libraries[i] != null || this.stores[i] != null) {
+					lengths[size++] = i;
+				}
+			}
+
+			return Arrays.copyOf(lengths, size);
+		}
+	}
+
+	/**
+	 *
+	 * Checks if a library has been built yet.
+	 *
+	 * @param wordleLength length of the words
+	 * @return true if library() has built the length
+	 */
+	public boolean isBuilt(int wordleLength) {
+
+		synchronized (this.libraries) {
+			return this.libraries[wordleLength] != null;
+		}
+	}
+
+	public String toString() {
+
+		StringBuilder sb = new StringBuilder();
+
+		for(int length : this.lengths()) {
+			sb.append(sb.length() == 0 ? "" : ", ").append(length).append(this.isBuilt(length) ? " letters" : " letters (not built)");
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 *
+	 * Checks if the first characters of a line are all letters, the same as
+	 * WordleGame.isValidWordleGuess().
+	 *
+	 */
+	private static boolean isLetters(String line, int length) {
+
+		for(int i = 0; i < length; i++) {
+
+			char c = line.charAt(i);
+			if(!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z')) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 *
+	 * Parses the token count in the last field of a line of frequency data.
+	 *
+	 * @param line tab separated line with the word first
+	 * @return the token count. 1 if the last field isn't a number
+	 */
+	private static long parseCount(String line) {
+
+		try {
+			return Long.parseLong(line.substring(line.lastIndexOf("\t") + 1).trim());
+		} catch (NumberFormatException e) {
+			return 1;
+		}
+	}
+
+	/**
+	 *
+	 * Words of one length in the order they were read, packed into one array of lower case
+	 * letters. Words read more than once are kept more than once until the library is built.
+	 *
+	 */
+	private static final class PackedWords {
+
+		private final int wordleLength;
+		private char[] letters;
+		private long[] counts;
+		private int size;
+
+		PackedWords(int wordleLength) {
+
+			this.wordleLength = wordleLength;
+			this.letters = new char[wordleLength * 64];
+			this.counts = new long[64];
+		}
+
+		/**
+		 *
+		 * Appends the word at the start of a line in lower case.
+		 *
+		 */
+		void add(String line, long count) {
+
+			if(this.size == this.counts.length) {
+				this.counts = Arrays.copyOf(this.counts, this.size * 2);
+				this.letters = Arrays.copyOf(this.letters, this.size * 2 * this.wordleLength);
+			}
+
+			int offset = this.size * this.wordleLength;
+			for(int i = 0; i < this.wordleLength; i++) {
+				this.letters[offset + i] = Character.toLowerCase(line.charAt(i));
+			}
+
+			this.counts[this.size++] = count;
+		}
+
+		/**
+		 *
+		 * Maps the words in the order they were read to their counts, adding together the
+		 * counts of words read more than once.
+		 *
+		 */
+		Map<String, Long> wordCounts() {
+
+			LinkedHashMap<String, Long> wordCounts = new LinkedHashMap<>(this.size * 2);
+
+			for(int i = 0; i < this.size; i++) {
+				wordCounts.merge(new String(this.letters, i * this.wordleLength, this.wordleLength), this.counts[i], Long::sum);
+			}
+
+			return wordCounts;
+		}
+	}
+}
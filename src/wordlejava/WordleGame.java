@@ -21,6 +21,7 @@ public class WordleGame {
 
 	public static int STANDARD_GUESSES = 6;
 	public static int STANDARD_LENGTH = 5;
+	public static int STANDARD_ANSWERS = 2309;
 	private char[][] grid;
 	private String wordle;
 	private int nextGuessIndex = 0;
@@ -173,6 +174,91 @@ public class WordleGame {
 		return 0;
 	}
 
+	/**
+	 *
+	 * Encodes the results a guess would get against a wordle into a single number. Uses the
+	 * same result for each letter as getResult() with the result of letter i as the base 3
+	 * digit i. Guesses with the same code can't be told apart by a player.
+	 *
+	 * @param guess the word being guessed
+	 * @param wordle the word being guessed against. Must be the same length as the guess
+	 * @return the results of every letter encoded in base 3
+	 */
+	public static int getPattern(String guess, String wordle) {
+
+		int pattern = 0;
+
+		for(int i = guess.length() - 1; i >= 0; i--) {
+
+			char c = guess.charAt(i);
+			int result = 0;
+
+			if(c == wordle.charAt(i)) {
+				result = 1;
+			} else if(wordle.indexOf(c) != -1) {
+				result = 2;
+			}
+
+			pattern = pattern * 3 + result;
+		}
+
+		return pattern;
+	}
+
+	/**
+	 *
+	 * Encodes the results of a guess as getPattern() would.
+	 *
+	 * @param results result of each letter as returned by getResult()
+	 * @return the results encoded in base 3
+	 */
+	public static int encodePattern(int[] results) {
+
+		int pattern = 0;
+
+		for(int i = results.length - 1; i >= 0; i--) {
+			pattern = pattern * 3 + results[i];
+		}
+
+		return pattern;
+	}
+
+	/**
+	 *
+	 * The pattern of a guess that is the wordle.
+	 *
+	 * @param wordleLength the number of letters in the wordle
+	 * @return the code of every letter being correct
+	 */
+	public static int getWinPattern(int wordleLength) {
+
+		int pattern = 0;
+
+		for(int i = 0; i < wordleLength; i++) {
+			pattern = pattern * 3 + 1;
+		}
+
+		return pattern;
+	}
+
+	/**
+	 *
+	 * The number of different patterns a guess can get.
+	 *
+	 * @param wordleLength the number of letters in the wordle
+	 * @return one more than the largest pattern code
+	 */
+	public static int getNumPatterns(int wordleLength) {
+
+		int numPatterns = 1;
+
+		for(int i = 0; i < wordleLength; i++) {
+			numPatterns *= 3;
+		}
+
+		return numPatterns;
+	}
+
 	public char[] getGuess(int guess) {
 
 		return this.grid[guess];
@@ -272,10 +358,28 @@ public class WordleGame {
 		return isValidWordleGuess(guess, wordleLength);
 	}
 
+	/**
+	 *
+	 * Checks for the validity of a word based on a game and a library.
+	 *
+	 * @param guess word to be checked
+	 * @param wordleLength the length of the wordle to be compared
+	 * @param library the words that can be guessed
+	 * @return false if the word isn't in the library or isn't valid for the length
+	 */
+	public static boolean isValidWordleGuess(String guess, int wordleLength, WordleLibrary library) {
+
+		if(library.indexOf(guess) == -1) {
+			return false;
+		}
+
+		return isValidWordleGuess(guess, wordleLength);
+	}
+
 	/**
 	 *
 	 * Returns a game with the standard number of guess based on the standard length
-	 * picked randomly from a library. Restricted to the first 2309 indicies of a 
+	 * picked randomly from a library. Restricted to the first STANDARD_ANSWERS indicies of a 
 	 * library sorted by frequency to align with the NYT game.
 	 *
 	 * @param library word list from which to pick the wordle
@@ -283,11 +387,26 @@ public class WordleGame {
 	 */
 	public static WordleGame getRandomStandardGame(List<String> library) {
 
-		String wordle = library.get(new Random().nextInt(2309));
+		String wordle = library.get(new Random().nextInt(Math.min(STANDARD_ANSWERS, library.size())));
 
 		return new WordleGame(wordle, STANDARD_GUESSES);
 	}
 
+	/**
+	 *
+	 * Returns a game with the standard number of guesses with the wordle drawn from the
+	 * answer pool of a library. More frequent words are drawn more often, in proportion
+	 * to their priors.
+	 *
+	 * @param library library from which to draw the wordle
+	 * @param random source of randomness
+	 * @return new standard game instance
+	 */
+	public static WordleGame getRandomStandardGame(WordleLibrary library, Random random) {
+
+		return new WordleGame(library.sample(random), STANDARD_GUESSES);
+	}
+
 	/**
 	 *
 	 * Returns the number of guesses in the Wordle game
@@ -0,0 +1,539 @@
+package wordlejava;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ *
+ * Immutable library of words of a single length paired with their token counts from the American
+ * National Corpus. Counts are kept in an array parallel to the words, and words are sorted by
+ * descending count so the most frequent words come first regardless of the order of the source
+ * file. The first answerCount words form the answer pool and their counts are normalized into
+ * the likelihood of each word being the wordle. Words outside of the answer pool have a prior of 0.
+ *
+ * Answers can be drawn from the priors in constant time using an alias table. Words are expected
+ * to be lower case letters, as the import methods of GuessManager create them.
+ *
+ * @author johnmatthew
+ *
+ */
+public class WordleLibrary {
+
+	private final int wordleLength;
+	private final String[] words;
+	private final long[] counts;
+	private final double[] priors;
+	private final int answerCount;
+	private final HashMap<String, Integer> indexes;
+	private final List<String> wordList;
+
+	// alias table over the answer pool
+	private final double[] aliasProbability;
+	private final int[] alias;
+
+	// built on first use
+	private volatile LetterSets letterSets;
+	private volatile GuessPruner guessPruner;
+
+	/**
+	 *
+	 * Creates a library from words and the counts found for each of them. Words with the same
+	 * count keep the order they were passed in.
+	 *
+	 * @param wordleLength length of every word in the library
+	 * @param wordCounts words mapped to their token counts. Iteration order breaks ties in count
+	 * @param answerCount the number of most frequent words that can be the wordle. Limited to
+	 * 			the number of words
+	 */
+	public WordleLibrary(int wordleLength, Map<String, Long> wordCounts, int answerCount) {
+
+		this.wordleLength = wordleLength;
+
+		String[] unsortedWords = wordCounts.keySet().toArray(new String[0]);
+		Integer[] order = new Integer[unsortedWords.length];
+		for(int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+
+		long[] unsortedCounts = new long[unsortedWords.length];
+		for(int i = 0; i < unsortedWords.length; i++) {
+			unsortedCounts[i] = wordCounts.get(unsortedWords[i]);
+		}
+
+		// stable sort keeps the source order for equal counts
+		Arrays.sort(order, (a, b) -> Long.compare(unsortedCounts[b], unsortedCounts[a]));
+
+		this.words = new String[order.length];
+		this.counts = new long[order.length];
+		this.indexes = new HashMap<>(order.length * 2);
+
+		for(int i = 0; i < order.length; i++) {
+
+			this.words[i] = unsortedWords[order[i]];
+			this.counts[i] = unsortedCounts[order[i]];
+			this.indexes.put(this.words[i], i);
+		}
+
+		this.wordList = Collections.unmodifiableList(Arrays.asList(this.words));
+		this.answerCount = Math.min(answerCount, this.words.length);
+		this.priors = new double[this.words.length];
+		this.aliasProbability = new double[this.answerCount];
+		this.alias = new int[this.answerCount];
+
+		this.initPriors();
+		this.initAliasTable();
+	}
+
+	/**
+	 *
+	 * Creates a library from words already sorted by descending count, as words() and count()
+	 * list them, without sorting again. Used to load a SolverSnapshot.
+	 *
+	 * @param wordleLength length of every word in the library
+	 * @param words the words sorted by descending count
+	 * @param counts the count of each word
+	 * @param answerCount the number of most frequent words that can be the wordle
+	 */
+	WordleLibrary(int wordleLength, String[] words, long[] counts, int answerCount) {
+
+		this.wordleLength = wordleLength;
+		this.words = words;
+		this.counts = counts;
+		this.indexes = new HashMap<>(words.length * 2);
+
+		for(int i = 0; i < words.length; i++) {
+			this.indexes.put(words[i], i);
+		}
+
+		this.wordList = Collections.unmodifiableList(Arrays.asList(this.words));
+		this.answerCount = Math.min(answerCount, this.words.length);
+		this.priors = new double[this.words.length];
+		this.aliasProbability = new double[this.answerCount];
+		this.alias = new int[this.answerCount];
+
+		this.initPriors();
+		this.initAliasTable();
+	}
+
+	/**
+	 *
+	 * Creates a library from a list of words without counts. Every word is given the same
+	 * count so the list order is kept and the priors are uniform over the answer pool.
+	 *
+	 * @param wordleLength length of every word in the library
+	 * @param words the words of the library
+	 * @param answerCount the number of words from the start of the list that can be the wordle
+	 */
+	public WordleLibrary(int wordleLength, List<String> words, int answerCount) {
+
+		this(wordleLength, uniformCounts(words), answerCount);
+	}
+
+	/**
+	 *
+	 * Maps every word to a count of 1, keeping the first occurrence of duplicates.
+	 *
+	 * @param words the words to be counted
+	 * @return words in list order mapped to a count of 1
+	 */
+	private static Map<String, Long> uniformCounts(List<String> words) {
+
+		LinkedHashMap<String, Long> wordCounts = new LinkedHashMap<>();
+
+		for(String word : words) {
+			wordCounts.putIfAbsent(word, 1L);
+		}
+
+		return wordCounts;
+	}
+
+	/**
+	 *
+	 * Normalizes the counts of the answer pool into priors. Falls back to uniform priors
+	 * if none of the answers were counted.
+	 */
+	private void initPriors() {
+
+		double total = 0;
+		for(int i = 0; i < this.answerCount; i++) {
+			total += this.counts[i];
+		}
+
+		for(int i = 0; i < this.answerCount; i++) {
+
+			this.priors[i] = total > 0 ? this.counts[i] / total : 1.0 / this.answerCount;
+		}
+	}
+
+	/**
+	 *
+	 * Builds the alias table for the answer pool using Vose's method. Each slot holds the
+	 * probability of keeping its own index and the index to use otherwise.
+	 */
+	private void initAliasTable() {
+
+		int n = this.answerCount;
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallSize = 0;
+		int largeSize = 0;
+
+		for(int i = 0; i < n; i++) {
+
+			scaled[i] = this.priors[i] * n;
+
+			if(scaled[i] < 1.0) {
+				small[smallSize++] = i;
+			} else {
+				large[largeSize++] = i;
+			}
+		}
+
+		while(smallSize > 0 && largeSize > 0) {
+
+			int less = small[--smallSize];
+			int more = large[--largeSize];
+
+			this.aliasProbability[less] = scaled[less];
+			this.alias[less] = more;
+
+			scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+
+			if(scaled[more] < 1.0) {
+				small[smallSize++] = more;
+			} else {
+				large[largeSize++] = more;
+			}
+		}
+
+		// remaining slots are full up to rounding error
+		while(largeSize > 0) {
+			this.aliasProbability[large[--largeSize]] = 1.0;
+		}
+		while(smallSize > 0) {
+			this.aliasProbability[small[--smallSize]] = 1.0;
+		}
+	}
+
+	/**
+	 *
+	 * Draws the index of an answer with probability equal to its prior in constant time.
+	 *
+	 * @param random source of randomness
+	 * @return index of the drawn answer
+	 */
+	public int sampleIndex(Random random) {
+
+		int slot = random.nextInt(this.answerCount);
+
+		return random.nextDouble() < this.aliasProbability[slot] ? slot : this.alias[slot];
+	}
+
+	/**
+	 *
+	 * Draws an answer with probability equal to its prior in constant time.
+	 *
+	 * @param random source of randomness
+	 * @return the drawn answer
+	 */
+	public String sample(Random random) { return this.words[this.sampleIndex(random)]; }
+
+	/**
+	 *
+	 * Gets the likelihood of a word being the wordle.
+	 *
+	 * @param word the word to look up
+	 * @return the prior of the word. 0 if the word isn't an answer or isn't in the library
+	 */
+	public double prior(String word) {
+
+		Integer index = this.indexes.get(word);
+
+		return index == null ? 0 : this.priors[index];
+	}
+
+	/**
+	 *
+	 * Gets the likelihood of the word at an index being the wordle.
+	 *
+	 * @param index index of the word
+	 * @return the prior of the word
+	 */
+	public double prior(int index) { return this.priors[index]; }
+
+	/**
+	 *
+	 * Gets the corpus token count of the word at an index.
+	 *
+	 * @param index index of the word
+	 * @return the token count of the word
+	 */
+	public long count(int index) { return this.counts[index]; }
+
+	/**
+	 *
+	 * Gets the word at an index. Index 0 is the most frequent word.
+	 *
+	 * @param index index of the word
+	 * @return the word at that index
+	 */
+	public String word(int index) { return this.words[index]; }
+
+	/**
+	 *
+	 * Finds the index of a word in the library.
+	 *
+	 * @param word the word to look up
+	 * @return the index of the word. -1 if the word isn't in the library
+	 */
+	public int indexOf(String word) {
+
+		Integer index = this.indexes.get(word);
+
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 *
+	 * Unmodifiable view of all words sorted by descending count.
+	 *
+	 * @return list of the words in the library
+	 */
+	public List<String> words() { return this.wordList; }
+
+	/**
+	 *
+	 * Unmodifiable view of the words that can be the wordle.
+	 *
+	 * @return list of the answer pool
+	 */
+	public List<String> answers() { return this.wordList.subList(0, this.answerCount); }
+
+	/**
+	 *
+	 * The number of words in the library.
+	 *
+	 * @return int of the number of words
+	 */
+	public int size() { return this.words.length; }
+
+	/**
+	 *
+	 * The number of words that can be the wordle.
+	 *
+	 * @return int of the size of the answer pool
+	 */
+	public int answerCount() { return this.answerCount; }
+
+	/**
+	 *
+	 * The length of every word in the library.
+	 *
+	 * @return int of the word length
+	 */
+	public int wordleLength() { return this.wordleLength; }
+
+	/**
+	 *
+	 * Checksum of the words in order, so files indexed by the words can tell whether they were
+	 * made from the same library.
+	 *
+	 * @return the CRC32C of the words
+	 */
+	public long fingerprint() {
+
+		CRC32C crc = new CRC32C();
+
+		for(String word : this.words) {
+			crc.update(word.getBytes(StandardCharsets.US_ASCII));
+		}
+
+		return crc.getValue();
+	}
+
+	/**
+	 *
+	 * The set of every word in the library.
+	 *
+	 * @return set of the indexes of all words
+	 */
+	public CandidateSet all() { return this.letterSets().all; }
+
+	/**
+	 *
+	 * The set of words that include a letter.
+	 *
+	 * @param c a lower case letter
+	 * @return set of the indexes of words including c
+	 */
+	public CandidateSet wordsWithLetter(char c) { return this.letterSets().withLetter[c - 'a']; }
+
+	/**
+	 *
+	 * The set of words with a letter at an index.
+	 *
+	 * @param c a lower case letter
+	 * @param index index of the letter in the word
+	 * @return set of the indexes of words with c at index
+	 */
+	public CandidateSet wordsWithLetterAt(char c, int index) { return this.letterSets().letterAt[index * 26 + c - 'a']; }
+
+	/**
+	 *
+	 * The set of words whose first occurrence of a letter is at an index.
+	 *
+	 * @param c a lower case letter
+	 * @param index index of the first occurrence of the letter
+	 * @return set of the indexes of words where indexOf(c) is index
+	 */
+	public CandidateSet wordsWithFirstLetterAt(char c, int index) { return this.letterSets().firstLetterAt[index * 26 + c - 'a']; }
+
+	/**
+	 *
+	 * Gets the letter sets, building them the first time they are needed.
+	 *
+	 * @return the letter sets of the library
+	 */
+	private LetterSets letterSets() {
+
+		LetterSets sets = this.letterSets;
+
+		if(sets == null) {
+			synchronized(this) {
+				sets = this.letterSets;
+				if(sets == null) {
+					sets = new LetterSets(this.words, this.wordleLength);
+					this.letterSets = sets;
+				}
+			}
+		}
+
+		return sets;
+	}
+
+	/**
+	 *
+	 * Gets the pruner of the words as guesses, building it the first time it is needed.
+	 *
+	 * @return the pruner of the library
+	 */
+	GuessPruner guessPruner() {
+
+		GuessPruner pruner = this.guessPruner;
+
+		if(pruner == null) {
+			synchronized(this) {
+				pruner = this.guessPruner;
+				if(pruner == null) {
+					pruner = new GuessPruner(this);
+					this.guessPruner = pruner;
+				}
+			}
+		}
+
+		return pruner;
+	}
+
+	public String toString() { return this.size() + " words, " + this.answerCount + " answers"; }
+
+	/**
+	 *
+	 * Sets of the words including each letter, with each letter at each index and with the
+	 * first occurrence of each letter at each index. Used to refine remaining words with set
+	 * operations instead of reading every word.
+	 *
+	 */
+	private static final class LetterSets {
+
+		private final CandidateSet all;
+		private final CandidateSet[] withLetter;
+		private final CandidateSet[] letterAt;
+		private final CandidateSet[] firstLetterAt;
+
+		private LetterSets(String[] words, int wordleLength) {
+
+			int[][] withLetter = new int[26][];
+			int[][] letterAt = new int[26 * wordleLength][];
+			int[][] firstLetterAt = new int[26 * wordleLength][];
+			int[] withLetterSizes = new int[26];
+			int[] letterAtSizes = new int[26 * wordleLength];
+			int[] firstLetterAtSizes = new int[26 * wordleLength];
+
+			// count first so each array is allocated once
+			for(String word : words) {
+				this.visit(word, withLetterSizes, letterAtSizes, firstLetterAtSizes, -1, null, null, null);
+			}
+
+			allocate(withLetter, withLetterSizes);
+			allocate(letterAt, letterAtSizes);
+			allocate(firstLetterAt, firstLetterAtSizes);
+
+			for(int i = 0; i < words.length; i++) {
+				this.visit(words[i], withLetterSizes, letterAtSizes, firstLetterAtSizes, i, withLetter, letterAt, firstLetterAt);
+			}
+
+			this.all = CandidateSet.range(words.length);
+			this.withLetter = toSets(withLetter, withLetterSizes);
+			this.letterAt = toSets(letterAt, letterAtSizes);
+			this.firstLetterAt = toSets(firstLetterAt, firstLetterAtSizes);
+		}
+
+		/**
+		 * Counts the sets a word belongs to, or adds the word to them if index isn't -1.
+		 */
+		private void visit(String word, int[] withLetterSizes, int[] letterAtSizes, int[] firstLetterAtSizes,
+				int index, int[][] withLetter, int[][] letterAt, int[][] firstLetterAt) {
+
+			int seen = 0;
+
+			for(int j = 0; j < word.length(); j++) {
+
+				int letter = word.charAt(j) - 'a';
+				int slot = j * 26 + letter;
+
+				if(index == -1) {
+					letterAtSizes[slot]++;
+				} else {
+					letterAt[slot][letterAtSizes[slot]++] = index;
+				}
+
+				if((seen & (1 << letter)) == 0) {
+
+					seen |= 1 << letter;
+
+					if(index == -1) {
+						withLetterSizes[letter]++;
+						firstLetterAtSizes[slot]++;
+					} else {
+						withLetter[letter][withLetterSizes[letter]++] = index;
+						firstLetterAt[slot][firstLetterAtSizes[slot]++] = index;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Allocates each array at its counted size and resets the sizes for filling.
+		 */
+		private static void allocate(int[][] arrays, int[] sizes) {
+
+			for(int i = 0; i < arrays.length; i++) {
+				arrays[i] = new int[sizes[i]];
+				sizes[i] = 0;
+			}
+		}
+
+		private static CandidateSet[] toSets(int[][] arrays, int[] sizes) {
+
+			CandidateSet[] sets = new CandidateSet[arrays.length];
+
+			for(int i = 0; i < arrays.length; i++) {
+				sets[i] = CandidateSet.of(arrays[i], sizes[i]);
+			}
+
+			return sets;
+		}
+	}
+}
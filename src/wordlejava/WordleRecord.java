@@ -1,6 +1,8 @@
 package wordlejava;
 
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  *
@@ -13,9 +15,12 @@ import java.util.*;
  */
 public class WordleRecord {
 
+	private static final Pattern RECORD = Pattern.compile("^(\\S+)\tWIN: (true|false)-> \\S+ \\[(.*)\\]$");
+
 	private String wordle;
 	private LinkedList<String> guesses;
 	private boolean win;
+	private GameCost cost;
 
 
 	/**
@@ -34,6 +39,21 @@ public class WordleRecord {
 		this.wordle = wordle;
 	}
 
+	/**
+	 *
+	 * Creates the record of a game that was measured while it was solved.
+	 *
+	 * @param wordle the worlde of the game
+	 * @param guesses List of the guesses that were made
+	 * @param win whether the game was won or lost as a result
+	 * @param cost the CPU time and allocation of solving the game. null if it wasn't measured
+	 */
+	public WordleRecord(String wordle, LinkedList<String> guesses, boolean win, GameCost cost) {
+
+		this(wordle, guesses, win);
+		this.cost = cost;
+	}
+
 	/**
 	 *
 	 * Returns a String including all information known about the WordleGame.
@@ -44,6 +64,64 @@ public class WordleRecord {
 		return wordle + "\tWIN: " + this.win + "-> " + this.wordle + " " + this.guesses.toString();
 	}
 
+	/**
+	 *
+	 * Reads a record back from the line its toString() writes, so records printed by main and
+	 * PlayWordle can be archived and analyzed later.
+	 *
+	 * @param line a line written by toString()
+	 * @return the record of the line
+	 * @throws IllegalArgumentException if the line isn't a record
+	 */
+	public static WordleRecord parse(String line) {
+
+		Matcher matcher = RECORD.matcher(line.trim());
+
+		if(!matcher.matches()) {
+			throw new IllegalArgumentException("not a record: " + line);
+		}
+
+		LinkedList<String> guesses = new LinkedList<>();
+		if(!matcher.group(3).isEmpty()) {
+			guesses.addAll(Arrays.asList(matcher.group(3).split(", ")));
+		}
+
+		return new WordleRecord(matcher.group(1), guesses, Boolean.parseBoolean(matcher.group(2)));
+	}
+
+	/**
+	 *
+	 * Gets the wordle of the WordleGame.
+	 *
+	 * @return String of the wordle
+	 */
+	public String getWordle() { return this.wordle; }
+
+	/**
+	 *
+	 * Gets the guesses made in order.
+	 *
+	 * @return copy of the guesses
+	 */
+	public List<String> getGuesses() { return new ArrayList<>(this.guesses); }
+
+	/**
+	 *
+	 * Gets whether the WordleGame was won.
+	 *
+	 * @return true if the last guess was the wordle
+	 */
+	public boolean isWin() { return this.win; }
+
+	/**
+	 *
+	 * Gets the CPU time and allocation of solving the WordleGame. Not written by toString(), so
+	 * records read back by parse() have none.
+	 *
+	 * @return the cost of the game. null if it wasn't measured
+	 */
+	public GameCost getCost() { return this.cost; }
+
 	/**
 	 *
 	 * Gets the number of the guess that won the WordleGame in the case that the game was won.
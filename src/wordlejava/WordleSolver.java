@@ -16,6 +16,7 @@ public class WordleSolver {
 
 	private WordleGame game;
 	private GuessManager guessManager;
+	private LinkedList<String> guesses;
 
 	/**
 	 *
@@ -31,28 +32,56 @@ public class WordleSolver {
 
 		this.game = game;
 		this.guessManager = new GuessManager(this.game.getWordleLength(), library);
+		this.guesses = new LinkedList<>();
 //		System.out.println("WordleSolver() library.size(): " + library.size()); // for testing
 
 	}
 
+	/**
+	 *
+	 * Constructor for solving with a strategy other than the default. Words are weighted
+	 * by the priors of the WordleLibrary when scoring guesses.
+	 *
+	 * @param game The WorldeGame that is to be solved
+	 * @param library List of words that the GeussManager will use to find the wordle
+	 * @param strategy the logic used to pick each guess
+	 * @param priors library of the likelihood of each word being the wordle. null to weight
+	 * 			every word the same
+	 */
+	public WordleSolver(WordleGame game, List<String> library, GuessStrategy strategy, WordleLibrary priors) {
+
+		this(game, library);
+		this.guessManager.setStrategy(strategy);
+		this.guessManager.setPriors(priors);
+	}
+
 	/**
 	 *
 	 * Solves the WordleGame by continuing to make guesses until the game is over until the
 	 * condition that there are no guesses remaining or the game has been won. Maintains
-	 * record of the guesses made.
+	 * record of the guesses made. Records a SolverEvents.Solve event, and the GameCost of the
+	 * game in the record when GameCost is enabled.
 	 *
 	 * @return The WordleRecord summarizing the game that was solved and the result
 	 */
 	public WordleRecord solve() {
 
-		LinkedList<String> guesses = new LinkedList<>();
+		SolverEvents.Solve event = new SolverEvents.Solve();
+		event.begin();
+		long start = System.nanoTime();
+		int candidates = this.guessManager.size();
+		GameCost.Recorder cost = GameCost.enabled() ? new GameCost.Recorder() : null;
 
 		while (!this.game.gameIsOver()) {
 
 			char[] previousGuess = this.makeNextGuess();
-			guesses.add(new String(previousGuess));
+			this.guesses.add(new String(previousGuess));
 			this.guessManager.refineLibrary(previousGuess, this.game.getLastResults());
 
+			if(cost != null) {
+				cost.guessDone();
+			}
+
 //			System.out.println(Arrays.toString(this.guessManager.garbage())); // for testing
 //			System.out.println(Arrays.toString(this.guessManager.wordleKnown()) + " " + Arrays.toString(this.guessManager.wordleIncludes())); // for testing
 //			System.out.println("POSSIBLE WORDS: " + this.guessManager.size()); // for testing
@@ -60,9 +89,58 @@ public class WordleSolver {
 //			new Scanner(System.in).nextLine(); // for testing
 		}
 //		System.out.println("gameIsOver"); // for testing
-		return new WordleRecord(this.game.wordle(), guesses, this.game.getWin());
+
+		event.end();
+
+		if(event.shouldCommit()) {
+			event.wordle = this.game.wordle();
+			event.guesses = this.guesses.size();
+			event.win = this.game.getWin();
+			event.commit();
+		}
+
+		if(SolverEvents.countersEnabled()) {
+			SolverEvents.GAMES_SOLVED.increment();
+			SolverEvents.SOLVE_NANOS.add(System.nanoTime() - start);
+		}
+
+		if(SolverMetrics.enabled()) {
+			SolverMetrics.record(SolverMetrics.Operation.SOLVE, this.guessManager.strategy(), candidates, System.nanoTime() - start);
+		}
+
+		return new WordleRecord(this.game.wordle(), this.guesses, this.game.getWin(), cost == null ? null : cost.finish());
 	}
 
+	/**
+	 *
+	 * Makes guesses that were already chosen, such as the guesses of a game in progress, and
+	 * refines the library by their results. The guesses are included in the record of solve().
+	 *
+	 * @param previousGuesses the guesses to make in order
+	 */
+	public void replay(List<String> previousGuesses) {
+
+		for(String guess : previousGuesses) {
+
+			if(this.game.gameIsOver() || !this.game.guess(guess)) {
+				return;
+			}
+
+			char[] previousGuess = this.game.getLastGuess();
+			this.guesses.add(new String(previousGuess));
+			this.guessManager.refineLibrary(previousGuess, this.game.getLastResults());
+		}
+	}
+
+	/**
+	 *
+	 * The GuessManager picking the guesses, used to change how guesses are picked before
+	 * solving.
+	 *
+	 * @return the GuessManager of the solver
+	 */
+	public GuessManager guessManager() { return this.guessManager; }
+
 	/**
 	 *
 	 * Gets the next guess by calling the GuessManager and makes the guess on the WordleGame